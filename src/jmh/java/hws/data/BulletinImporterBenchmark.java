@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the rows per second of BulletinImporter for CSV and JSON bulletins, compared with
+ * a reader which splits every line into Strings and parses them with LocalDate.parse() and
+ * Float.parseFloat().
+ *
+ * @author grimm
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulletinImporterBenchmark
+{
+    private static final int RESERVOIRS = 12;
+    private static final int DAYS = 3650;
+    private static final int ROWS = RESERVOIRS * DAYS;
+
+    private static final DateTimeFormatter GERMAN_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private String csv;
+    private String json;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2010, 1, 1);
+
+        StringBuilder csvData = new StringBuilder(ROWS * 64);
+        StringBuilder jsonData = new StringBuilder(ROWS * 128);
+        csvData.append("Datum;Talsperre;Fuellungsgrad [%];Inhalt [Mio. m3];Zufluss;Abgabe\n");
+        jsonData.append("[\n");
+
+        for (int reservoir = 0; reservoir < RESERVOIRS; reservoir++) {
+            String name = "Talsperre " + (reservoir + 1);
+            for (int day = 0; day < DAYS; day++) {
+                LocalDate date = start.plusDays(day);
+                float fill = 20 + random.nextFloat() * 80;
+                float volume = fill * 0.5f;
+                float inflow = random.nextFloat() * 10;
+                float outflow = random.nextFloat() * 5;
+
+                csvData.append(String.format(Locale.GERMANY, "%s;%s;%.1f;%.2f;%.3f;%.3f\n",
+                        date.format(GERMAN_DATE), name, fill, volume, inflow, outflow));
+                jsonData.append(String.format(Locale.ROOT,
+                        "{\"date\": \"%s\", \"reservoir\": \"%s\", \"fillLevel\": %.1f, \"volume\": %.2f, \"inflow\": %.3f, \"outflow\": %.3f},\n",
+                        date, name, fill, volume, inflow, outflow));
+            }
+        }
+        jsonData.setLength(jsonData.length() - 2);
+        jsonData.append("\n]\n");
+
+        csv = csvData.toString();
+        json = jsonData.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object importCsv() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        new BulletinImporter(store).importCsv(new StringReader(csv), null);
+        return store;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object importJson() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        new BulletinImporter(store).importJson(new StringReader(json), null);
+        return store;
+    }
+
+    /** String.split() and LocalDate.parse() per row */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object splitAndParseCsv() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(";");
+                int day = (int) LocalDate.parse(fields[0], GERMAN_DATE).toEpochDay();
+                Reservoir reservoir = store.getOrCreate(fields[1]);
+                for (int n = 0; n < Metric.VALUES.length; n++)
+                    reservoir.set(day, Metric.VALUES[n], Float.parseFloat(fields[n + 2].replace(',', '.')));
+            }
+        }
+        return store;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the rows per second of ParallelBulletinImporter with 1 to 8 threads, for 30 yearly
+ * files which are split by file and for a single file holding all of them which is split by
+ * byte ranges.
+ *
+ * @author grimm
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParallelBulletinImporterBenchmark
+{
+    private static final int RESERVOIRS = 12;
+    private static final int YEARS = 30;
+    private static final int ROWS = RESERVOIRS * YEARS * 365;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"yearly", "single"})
+    public String files;
+
+    private Path directory;
+    private List<Path> bulletins;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(1990, 1, 1);
+
+        directory = Files.createTempDirectory("bulletins");
+        bulletins = new ArrayList<>();
+
+        String header = "Datum;Talsperre;Fuellungsgrad;Inhalt;Zufluss;Abgabe\n";
+        StringBuilder all = new StringBuilder(header);
+        for (int year = 0; year < YEARS; year++) {
+            StringBuilder csv = new StringBuilder(header);
+            for (int reservoir = 0; reservoir < RESERVOIRS; reservoir++) {
+                for (int day = 0; day < 365; day++) {
+                    float fill = 20 + random.nextFloat() * 80;
+                    csv.append(String.format(Locale.GERMANY, "%s;Talsperre %d;%.1f;%.2f;%.3f;%.3f\n",
+                            start.plusDays(year * 365 + day), reservoir + 1, fill, fill * 0.5f,
+                            random.nextFloat() * 10, random.nextFloat() * 5));
+                }
+            }
+
+            if (files.equals("yearly")) {
+                Path file = directory.resolve("bulletin" + (1990 + year) + ".csv");
+                Files.writeString(file, csv);
+                bulletins.add(file);
+            } else {
+                all.append(csv, header.length(), csv.length());
+            }
+        }
+
+        if (files.equals("single")) {
+            Path file = directory.resolve("bulletins.csv");
+            Files.writeString(file, all);
+            bulletins.add(file);
+        }
+
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pool.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object importFiles() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        ParallelBulletinImporter importer = new ParallelBulletinImporter(store, pool);
+        importer.setChunkSize(256 << 10);
+        importer.importFiles(bulletins);
+        return store;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the former AxisTick.findInterval with hard-coded divisors, a float array per call
+ * and AxisTick.values() in the loop with the table driven implementation.
+ *
+ * @author grimm
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AxisTickBenchmark
+{
+    private long spanInDays = 1;
+
+    @Benchmark
+    public Object legacyFindInterval()
+    {
+        spanInDays = (spanInDays * 31 + 7) % 50000;
+        return legacyFindInterval(spanInDays, 10);
+    }
+
+    @Benchmark
+    public Object tableFindInterval()
+    {
+        spanInDays = (spanInDays * 31 + 7) % 50000;
+        return LocalDateAxis.AxisTick.findInterval(spanInDays, 10);
+    }
+
+    private static LocalDateAxis.AxisTick legacyFindInterval(long spanInDays, int cntTicks)
+    {
+        float[] distances = new float[LocalDateAxis.AxisTick.values().length];
+
+        distances[0] = (spanInDays     - cntTicks) * (spanInDays     - cntTicks);
+        distances[1] = (spanInDays/7   - cntTicks) * (spanInDays/7   - cntTicks);
+        distances[2] = (spanInDays/30  - cntTicks) * (spanInDays/30  - cntTicks);
+        distances[3] = (spanInDays/90  - cntTicks) * (spanInDays/90  - cntTicks);
+        distances[4] = (spanInDays/365 - cntTicks) * (spanInDays/365 - cntTicks);
+        distances[5] = (spanInDays/3650 - cntTicks) * (spanInDays/3650 - cntTicks);
+        distances[6] = (spanInDays/18250 - cntTicks) * (spanInDays/18250 - cntTicks);
+        distances[7] = (spanInDays/36500 - cntTicks) * (spanInDays/36500 - cntTicks);
+
+        int smalestDistanceIdx = 0;
+        float temp = distances[0];
+        for (int n=0; n< LocalDateAxis.AxisTick.values().length; n++)
+            if (distances[n] < temp) {
+                temp = distances[n];
+                smalestDistanceIdx = n;
+            }
+
+        return LocalDateAxis.AxisTick.values()[smalestDistanceIdx];
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the range calculation of LocalDateRangeConverter on LocalDate objects with the
+ * primitive epoch day path.
+ *
+ * @author grimm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalDateRangeBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int dates;
+
+    private List<LocalDate> dateList;
+    private long[] epochDays;
+    private LocalDateRangeConverter converter;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        long start = LocalDate.of(1900, 1, 1).toEpochDay();
+
+        dateList = new ArrayList<>(dates);
+        epochDays = new long[dates];
+        for (int n=0; n < dates; n++) {
+            epochDays[n] = start + random.nextInt(365 * 120);
+            dateList.add(LocalDate.ofEpochDay(epochDays[n]));
+        }
+
+        LocalDateAxis axis = new LocalDateAxis(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 12, 31));
+        converter = new LocalDateRangeConverter(axis);
+    }
+
+    /** The former implementation of LocalDateRangeConverter.updateData() */
+    @Benchmark
+    public Object legacyIsBeforeIsAfter()
+    {
+        LocalDate minRange = LocalDate.MAX;
+        LocalDate maxRange = LocalDate.MIN;
+
+        for (LocalDate date : dateList) {
+            if (date.isBefore(minRange))
+                minRange = date;
+            if (date.isAfter(maxRange))
+                maxRange = date;
+        }
+        return maxRange.toEpochDay() - minRange.toEpochDay();
+    }
+
+    @Benchmark
+    public void updateDataList()
+    {
+        converter.updateData(dateList);
+    }
+
+    @Benchmark
+    public void updateDataEpochDays()
+    {
+        converter.updateData(epochDays);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares rebuilding the minor tick path of LocalDateAxis from new path elements with the
+ * {@link PathElementPool}. Each invocation corresponds to one layout while the range is
+ * dragged, the tick positions move by one pixel per layout.<p>
+ *
+ * The interesting figure is the allocation rate, run it with the gc profiler by adding
+ * <code>profilers = ['gc']</code> to the jmh block of build.gradle.
+ *
+ * @author grimm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MinorTickPathBenchmark
+{
+    @Param({"30", "365"})
+    public int ticks;
+
+    private Path allocatingPath;
+    private Path pooledPath;
+    private PathElementPool pool;
+    private int layout;
+
+    @Setup
+    public void setup()
+    {
+        allocatingPath = new Path();
+        pooledPath = new Path();
+        pool = new PathElementPool(pooledPath);
+    }
+
+    @Benchmark
+    public Object allocatePerLayout()
+    {
+        double offset = layout++ & 0xff;
+
+        allocatingPath.getElements().clear();
+        for (int n=0; n < ticks; n++) {
+            double x = offset + n * 3.0;
+            allocatingPath.getElements().addAll(new MoveTo(x, 1.0), new LineTo(x, 8.0));
+        }
+        return allocatingPath;
+    }
+
+    @Benchmark
+    public Object reuseElements()
+    {
+        double offset = layout++ & 0xff;
+
+        pool.begin();
+        for (int n=0; n < ticks; n++) {
+            double x = offset + n * 3.0;
+            pool.addLine(x, 1.0, x, 8.0);
+        }
+        pool.end();
+        return pooledPath;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import hws.gui.charts.RangeCollector;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.chart.XYChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the former list based extraction of ChartRangePaneBehavior with the collector
+ * based {@link ChartDataExtractor}. The data resembles daily water levels of 12 dams.<p>
+ *
+ * Beware: the legacy variant is quadratic, with 1M points a single invocation takes minutes.
+ *
+ * @author grimm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChartDataExtractionBenchmark
+{
+    private final static int NUM_SERIES = 12;
+
+    @Param({"1000", "100000", "1000000"})
+    public int points;
+
+    private List<XYChart.Series<LocalDate,Number>> data;
+
+    @Setup
+    public void setup()
+    {
+        data = new ArrayList<>();
+        LocalDate start = LocalDate.of(1990, 1, 1);
+        int perSeries = points / NUM_SERIES;
+
+        for (int s=0; s < NUM_SERIES; s++) {
+            XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+            for (int n=0; n < perSeries; n++) {
+                double level = 400 + 50 * Math.sin(n / 58.0) + s;
+                series.getData().add(new XYChart.Data<>(start.plusDays(n), level));
+            }
+            data.add(series);
+        }
+    }
+
+    @Benchmark
+    public Object legacyListContains()
+    {
+        List<LocalDate> xDataValues = new ArrayList<>();
+        List<Number> yDataValues = new ArrayList<>();
+
+        for (XYChart.Series<LocalDate,Number> series : data) {
+            for (XYChart.Data<LocalDate,Number> item : series.getData()) {
+                if (!xDataValues.contains(item.getXValue()))
+                    xDataValues.add(item.getXValue());
+                if (!yDataValues.contains(item.getYValue()))
+                    yDataValues.add(item.getYValue());
+            }
+        }
+        return xDataValues.size() + yDataValues.size();
+    }
+
+    @Benchmark
+    public Object distinctCollector()
+    {
+        RangeCollector<LocalDate> xCollector = RangeCollector.distinct();
+        RangeCollector<Number> yCollector = RangeCollector.distinct();
+
+        ChartDataExtractor.extract(data, xCollector, yCollector);
+        return xCollector.values().size() + yCollector.values().size();
+    }
+
+    @Benchmark
+    public Object extremesCollector()
+    {
+        RangeCollector<LocalDate> xCollector = RangeCollector.epochDayExtremes();
+        RangeCollector<Number> yCollector = RangeCollector.numberExtremes();
+
+        ChartDataExtractor.extract(data, xCollector, yCollector);
+        return xCollector.values().size() + yCollector.values().size();
+    }
+}
@@ -0,0 +1,840 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports the daily bulletins of the reservoirs from CSV or JSON files into a
+ * {@link ReservoirStore}. The files are read as a stream of characters. Fields are located in
+ * a reusable line buffer and dates and numbers are converted right there, so no String per
+ * field, no String[] per line and no document tree is created.
+ * <p>
+ * <b>CSV:</b> The first line names the columns. The delimiter is the first of ';', ',' or tab
+ * found in it. With ';' or tab, numbers may use a decimal comma.
+ * <pre>
+ *     Datum;Talsperre;Fuellungsgrad;Inhalt;Zufluss;Abgabe
+ *     15.09.2023;Okertalsperre;61,2;29,4;0,31;1,2
+ * </pre>
+ * <b>JSON:</b> An array of flat objects, or an object holding such an array, with the same
+ * names as keys.
+ * <pre>
+ *     [ {"date": "2023-09-15", "reservoir": "Okertalsperre", "fillLevel": 61.2, ...}, ... ]
+ * </pre>
+ * Dates are accepted as yyyy-MM-dd (a time part is ignored) or dd.MM.yyyy. The column names
+ * are compared in lower case without blanks and punctuation, English and German names are
+ * known (see {@link #columnOf(String)}). Unknown columns are skipped. If there is no column for
+ * the reservoir, the name of the file is used. Empty values leave the metric untouched.
+ * <p>
+ * The rows are collected in a store of their own and merged into the target store once the
+ * whole input has been read. So an import either succeeds or fails without changing the store:
+ * if a line is invalid, or if a row is earlier than the last day of a {@link ReservoirArchive},
+ * which only takes days from its last day on.
+ *
+ * @author grimm
+ */
+public class BulletinImporter
+{
+    private static final int COLUMN_IGNORED = -1;
+    private static final int COLUMN_DATE = -2;
+    private static final int COLUMN_RESERVOIR = -3;
+
+    private static final Map<String,Integer> COLUMNS = new HashMap<>();
+    static {
+        for (String name : new String[] { "date", "datum", "day", "tag" })
+            COLUMNS.put(name, COLUMN_DATE);
+        for (String name : new String[] { "reservoir", "talsperre", "name", "station" })
+            COLUMNS.put(name, COLUMN_RESERVOIR);
+        for (String name : new String[] { "filllevel", "fill", "fuellungsgrad", "fuellung" })
+            COLUMNS.put(name, Metric.FILL_LEVEL.ordinal());
+        for (String name : new String[] { "volume", "inhalt", "stauinhalt" })
+            COLUMNS.put(name, Metric.VOLUME.ordinal());
+        for (String name : new String[] { "inflow", "zufluss", "zulauf" })
+            COLUMNS.put(name, Metric.INFLOW.ordinal());
+        for (String name : new String[] { "outflow", "abgabe", "abfluss" })
+            COLUMNS.put(name, Metric.OUTFLOW.ordinal());
+    }
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final ReservoirStore store;
+
+    // values of the current row
+    private final float[] values = new float[Metric.VALUES.length];
+    private int epochDay;
+    private char[] name = new char[64];
+    private int nameLength;
+
+    // the reservoir of the previous row, rows are usually grouped by reservoir
+    private Reservoir lastReservoir;
+    private char[] lastName = new char[64];
+    private int lastNameLength = -1;
+
+    // rows of the current import, merged into the store at its end
+    private final ReservoirStore staged = new ReservoirStore();
+
+    private int lineNumber;
+
+    public BulletinImporter(ReservoirStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Import a bulletin file. The format is chosen by the extension ".csv" or ".json".
+     *
+     * @param file  the bulletin
+     * @return      number of imported rows
+     * @throws IOException  if the file could not be read or has an invalid content
+     */
+    public int importFile(Path file) throws IOException
+    {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String reservoir = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            switch (extension) {
+                case "csv" -> { return importCsv(reader, reservoir); }
+                case "json" -> { return importJson(reader, reservoir); }
+                default -> throw new IOException("Unknown bulletin format: " + file);
+            }
+        }
+    }
+
+    /**
+     * Import a bulletin in CSV format.
+     *
+     * @param reader     source of the CSV data
+     * @param reservoir  name of the reservoir for files without a reservoir column
+     * @return           number of imported rows
+     * @throws IOException  if the data could not be read or has an invalid content
+     */
+    public int importCsv(Reader reader, String reservoir) throws IOException
+    {
+        return importCsv(reader, reservoir, null);
+    }
+
+    /**
+     * Import a part of a bulletin in CSV format.
+     *
+     * @param reader     source of the CSV data
+     * @param reservoir  name of the reservoir for files without a reservoir column
+     * @param header     the header line of the bulletin, null if the reader starts with it
+     * @return           number of imported rows
+     * @throws IOException  if the data could not be read or has an invalid content
+     */
+    int importCsv(Reader reader, String reservoir, String header) throws IOException
+    {
+        beginImport();
+        try {
+            int rows = parseCsv(reader, reservoir, header);
+            writeStaged();
+            return rows;
+        } finally {
+            staged.clear();
+        }
+    }
+
+    /**
+     * Import a bulletin in JSON format.
+     *
+     * @param reader     source of the JSON data
+     * @param reservoir  name of the reservoir for rows without a reservoir
+     * @return           number of imported rows
+     * @throws IOException  if the data could not be read or has an invalid content
+     */
+    public int importJson(Reader reader, String reservoir) throws IOException
+    {
+        beginImport();
+        try {
+            int rows = parseJson(reader, reservoir);
+            writeStaged();
+            return rows;
+        } finally {
+            staged.clear();
+        }
+    }
+
+    /**
+     * Check that the readings of a run could be merged into a reservoir. An archive doesn't
+     * take days before its last day.
+     *
+     * @param target  the reservoir to merge into
+     * @param run     the readings
+     * @throws IOException  if the run starts before the last day of an archive
+     */
+    static void checkMerge(Reservoir target, Reservoir run) throws IOException
+    {
+        if (target instanceof ReservoirTable || target.isEmpty() || run.isEmpty())
+            return;
+
+        int lastDay = target.getEpochDay(target.size() - 1);
+        if (run.getEpochDay(0) < lastDay)
+            throw new IOException(String.format("Readings of %s could not be added, the archive %s ends with %s",
+                    LocalDate.ofEpochDay(run.getEpochDay(0)), target.getName(), LocalDate.ofEpochDay(lastDay)));
+    }
+
+    /**
+     * Merge the readings of a run into a reservoir. Values of the run win for days in both,
+     * missing values keep the former ones.
+     *
+     * @param target  the reservoir to merge into
+     * @param run     the readings, checked with {@link #checkMerge(Reservoir, Reservoir)}
+     */
+    static void merge(Reservoir target, Reservoir run)
+    {
+        if (target instanceof ReservoirTable table) {
+            table.merge(run);
+            return;
+        }
+
+        for (int row = 0; row < run.size(); row++) {
+            int epochDay = run.getEpochDay(row);
+            for (Metric metric : Metric.VALUES) {
+                float value = run.getValue(row, metric);
+                if (!Float.isNaN(value))
+                    target.set(epochDay, metric, value);
+            }
+        }
+    }
+
+    private void beginImport()
+    {
+        // the store may have changed since the last import
+        lastReservoir = null;
+        lastNameLength = -1;
+        lineNumber = 0;
+    }
+
+    // all rows have been read, merge them after all of them have been checked
+    private void writeStaged() throws IOException
+    {
+        for (Reservoir run : staged.getReservoirs()) {
+            Reservoir target = store.get(run.getName());
+            if (target != null)
+                checkMerge(target, run);
+        }
+
+        for (Reservoir run : staged.getReservoirs()) {
+            Reservoir target = store.get(run.getName());
+            if (target == null)
+                store.add(run);     // a new reservoir takes the staged table as it is
+            else
+                merge(target, run);
+        }
+    }
+
+    private int parseCsv(Reader reader, String reservoir, String header) throws IOException
+    {
+        CharScanner in = new CharScanner(reader);
+
+        char[] headerLine;
+        int headerLength;
+        if (header == null) {
+            do {
+                if (!in.readLine())
+                    return 0;
+                lineNumber++;
+            } while (in.length == 0);
+            headerLine = in.line;
+            headerLength = in.length;
+        } else {
+            headerLine = header.toCharArray();
+            headerLength = headerLine.length;
+        }
+
+        char delimiter = findDelimiter(headerLine, headerLength);
+        boolean decimalComma = delimiter != ',';
+        int[] columns = parseHeader(headerLine, headerLength, delimiter);
+        boolean hasReservoir = Arrays.stream(columns).anyMatch(c -> c == COLUMN_RESERVOIR);
+
+        int rows = 0;
+        while (in.readLine()) {
+            lineNumber++;
+            if (in.length == 0)
+                continue;
+
+            beginRow(hasReservoir ? null : reservoir);
+
+            char[] line = in.line;
+            int start = 0;
+            for (int column = 0; column < columns.length && start <= in.length; column++) {
+                int end = start;
+                boolean quoted = end < in.length && line[end] == '"';
+                if (quoted) {
+                    end = start + 1;
+                    while (end < in.length && line[end] != '"')
+                        end++;
+                    setField(columns[column], line, start + 1, end, decimalComma);
+                    while (end < in.length && line[end] != delimiter)
+                        end++;
+                } else {
+                    while (end < in.length && line[end] != delimiter)
+                        end++;
+                    setField(columns[column], line, start, end, decimalComma);
+                }
+                start = end + 1;
+            }
+
+            endRow();
+            rows++;
+        }
+        return rows;
+    }
+
+    private int parseJson(Reader reader, String reservoir) throws IOException
+    {
+        CharScanner in = new CharScanner(reader);
+
+        int c = in.nextToken();
+        if (c == '[')
+            return parseJsonRows(in, reservoir);
+
+        if (c != '{')
+            throw error(in, "array or object expected");
+
+        // find the array of rows in the enclosing object
+        int rows = 0;
+        c = in.nextToken();
+        while (c == '"') {
+            in.readString();
+            in.expect(':');
+            c = in.nextToken();
+            if (c == '[')
+                rows += parseJsonRows(in, reservoir);
+            else
+                in.skipValue(c);
+
+            c = in.nextToken();
+            if (c == ',')
+                c = in.nextToken();
+        }
+        if (c != '}')
+            throw error(in, "'}' expected");
+        return rows;
+    }
+
+    // the '[' has been read already
+    private int parseJsonRows(CharScanner in, String reservoir) throws IOException
+    {
+        KeyColumns keys = new KeyColumns();
+        int rows = 0;
+
+        int c = in.nextToken();
+        while (c == '{') {
+            beginRow(reservoir);
+
+            c = in.nextToken();
+            while (c == '"') {
+                in.readString();
+                int column = keys.columnOf(in.text, in.textLength);
+                in.expect(':');
+
+                c = in.nextToken();
+                lineNumber = in.lineNumber;
+                if (c == '"') {
+                    in.readString();
+                    setField(column, in.text, 0, in.textLength, true);
+                } else if (c == '-' || (c >= '0' && c <= '9')) {
+                    in.readNumber(c);
+                    setField(column, in.text, 0, in.textLength, false);
+                } else {
+                    in.skipValue(c);
+                }
+
+                c = in.nextToken();
+                if (c == ',')
+                    c = in.nextToken();
+            }
+            if (c != '}')
+                throw error(in, "'}' expected");
+
+            lineNumber = in.lineNumber;
+            endRow();
+            rows++;
+
+            c = in.nextToken();
+            if (c == ',')
+                c = in.nextToken();
+        }
+        if (c != ']')
+            throw error(in, "']' expected");
+        return rows;
+    }
+
+    /**
+     * Map the name of a column to its meaning. The name is compared in lower case, German
+     * umlauts are replaced (e.g. "F&uuml;llungsgrad" becomes "fuellungsgrad"), units in brackets
+     * and all other characters except letters are dropped.
+     *
+     * @param header  name of the column
+     * @return        index of the {@link Metric}, a negative value for date, reservoir and
+     *                unknown columns
+     */
+    static int columnOf(String header)
+    {
+        StringBuilder key = new StringBuilder(header.length());
+        int brackets = 0;
+        for (char c : header.toLowerCase(Locale.ROOT).toCharArray()) {
+            switch (c) {
+                case '[', '(' -> brackets++;
+                case ']', ')' -> brackets--;
+                default -> {
+                    if (brackets > 0)
+                        continue;
+                }
+            }
+            switch (c) {
+                case '\u00e4' -> key.append("ae");
+                case '\u00f6' -> key.append("oe");
+                case '\u00fc' -> key.append("ue");
+                case '\u00df' -> key.append("ss");
+                default -> {
+                    if (c >= 'a' && c <= 'z')
+                        key.append(c);
+                }
+            }
+        }
+        return COLUMNS.getOrDefault(key.toString(), COLUMN_IGNORED);
+    }
+
+    private static char findDelimiter(char[] line, int length)
+    {
+        for (int n = 0; n < length; n++) {
+            if (line[n] == ';' || line[n] == ',' || line[n] == '\t')
+                return line[n];
+        }
+        return ';';
+    }
+
+    private static int[] parseHeader(char[] line, int length, char delimiter)
+    {
+        int count = 1;
+        for (int n = 0; n < length; n++)
+            if (line[n] == delimiter) count++;
+
+        int[] columns = new int[count];
+        int start = 0;
+        for (int column = 0; column < count; column++) {
+            int end = start;
+            while (end < length && line[end] != delimiter)
+                end++;
+            columns[column] = columnOf(new String(line, start, end - start));
+            start = end + 1;
+        }
+        return columns;
+    }
+
+    private void beginRow(String reservoir)
+    {
+        Arrays.fill(values, Float.NaN);
+        epochDay = Integer.MIN_VALUE;
+        nameLength = -1;
+
+        if (reservoir != null) {
+            name = ensureCapacity(name, reservoir.length());
+            reservoir.getChars(0, reservoir.length(), name, 0);
+            nameLength = reservoir.length();
+        }
+    }
+
+    private void setField(int column, char[] buffer, int start, int end, boolean decimalComma) throws IOException
+    {
+        switch (column) {
+            case COLUMN_IGNORED -> { }
+            case COLUMN_DATE -> epochDay = parseEpochDay(buffer, start, end);
+            case COLUMN_RESERVOIR -> {
+                while (start < end && buffer[start] == ' ') start++;
+                while (end > start && buffer[end - 1] == ' ') end--;
+                name = ensureCapacity(name, end - start);
+                System.arraycopy(buffer, start, name, 0, end - start);
+                nameLength = end - start;
+            }
+            default -> values[column] = parseFloat(buffer, start, end, decimalComma);
+        }
+    }
+
+    private void endRow() throws IOException
+    {
+        if (epochDay == Integer.MIN_VALUE)
+            throw new IOException(String.format("Line %d: date missing", lineNumber));
+        if (nameLength <= 0)
+            throw new IOException(String.format("Line %d: reservoir missing", lineNumber));
+
+        Reservoir reservoir = findReservoir();
+        for (int n = 0; n < values.length; n++) {
+            if (!Float.isNaN(values[n]))
+                reservoir.set(epochDay, Metric.VALUES[n], values[n]);
+        }
+    }
+
+    private Reservoir findReservoir()
+    {
+        if (nameLength != lastNameLength
+                || !Arrays.equals(name, 0, nameLength, lastName, 0, nameLength)) {
+            lastReservoir = staged.getOrCreate(new String(name, 0, nameLength));
+            lastName = ensureCapacity(lastName, nameLength);
+            System.arraycopy(name, 0, lastName, 0, nameLength);
+            lastNameLength = nameLength;
+        }
+        return lastReservoir;
+    }
+
+    /**
+     * Convert a date given as yyyy-MM-dd or dd.MM.yyyy into an epoch day without creating any
+     * object. Characters after a date in ISO format (e.g. a time) are ignored.
+     */
+    private int parseEpochDay(char[] buffer, int start, int end) throws IOException
+    {
+        while (start < end && buffer[start] == ' ') start++;
+        while (end > start && buffer[end - 1] == ' ') end--;
+
+        int year, month, day;
+        if (end - start >= 10 && buffer[start + 4] == '-' && buffer[start + 7] == '-') {
+            year  = digits(buffer, start, 4);
+            month = digits(buffer, start + 5, 2);
+            day   = digits(buffer, start + 8, 2);
+        } else if (end - start == 10 && buffer[start + 2] == '.' && buffer[start + 5] == '.') {
+            day   = digits(buffer, start, 2);
+            month = digits(buffer, start + 3, 2);
+            year  = digits(buffer, start + 6, 4);
+        } else {
+            year = month = day = -1;
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month))
+            throw new IOException(String.format("Line %d: invalid date '%s'", lineNumber,
+                    new String(buffer, start, end - start)));
+
+        return toEpochDay(year, month, day);
+    }
+
+    private static int digits(char[] buffer, int start, int count)
+    {
+        int value = 0;
+        for (int n = start; n < start + count; n++) {
+            int digit = buffer[n] - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month)
+    {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar, the same as
+     * {@link java.time.LocalDate#toEpochDay()}.
+     */
+    static int toEpochDay(int year, int month, int day)
+    {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Convert a decimal number. With decimalComma a ',' is accepted as decimal separator as
+     * well. Empty values and "-" result in NaN.
+     */
+    private float parseFloat(char[] buffer, int start, int end, boolean decimalComma) throws IOException
+    {
+        while (start < end && buffer[start] == ' ') start++;
+        while (end > start && buffer[end - 1] == ' ') end--;
+
+        if (start == end || (end - start == 1 && buffer[start] == '-'))
+            return Float.NaN;
+
+        boolean negative = buffer[start] == '-';
+        int n = (negative || buffer[start] == '+') ? start + 1 : start;
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+
+        for (; n < end; n++) {
+            char c = buffer[n];
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (fractionDigits >= 0) fractionDigits++;
+                } else if (fractionDigits < 0) {
+                    break;      // too many digits before the separator
+                }
+            } else if ((c == '.' || (c == ',' && decimalComma)) && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+
+        int exponent = -Math.max(fractionDigits, 0);
+        if (n < end && digits > 0 && (buffer[n] == 'e' || buffer[n] == 'E')) {
+            n++;
+            boolean negativeExponent = n < end && buffer[n] == '-';
+            if (n < end && (buffer[n] == '-' || buffer[n] == '+'))
+                n++;
+
+            int value = 0;
+            int exponentStart = n;
+            for (; n < end && buffer[n] >= '0' && buffer[n] <= '9' && value < 1000; n++)
+                value = value * 10 + (buffer[n] - '0');
+            if (n == exponentStart)
+                digits = 0;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (n < end || digits == 0)
+            throw new IOException(String.format("Line %d: invalid number '%s'", lineNumber,
+                    new String(buffer, start, end - start)));
+
+        double value;
+        if (exponent >= 0)
+            value = mantissa * (exponent < POW10.length ? POW10[exponent] : Math.pow(10, exponent));
+        else
+            value = mantissa / (-exponent < POW10.length ? POW10[-exponent] : Math.pow(10, -exponent));
+        return (float) (negative ? -value : value);
+    }
+
+    private IOException error(CharScanner in, String message)
+    {
+        return new IOException(String.format("Line %d: %s", in.lineNumber, message));
+    }
+
+    private static char[] ensureCapacity(char[] array, int length)
+    {
+        return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, 2 * array.length));
+    }
+
+    /**
+     * The columns of the keys of JSON objects. The rows repeat the same few keys, so a key is
+     * looked up by comparing the characters in the buffer of the scanner, no String is created
+     * for it. The number of cached keys is bounded, further keys are mapped each time.
+     */
+    private static final class KeyColumns
+    {
+        private static final int CAPACITY = 32;
+
+        private final char[][] keys = new char[CAPACITY][];
+        private final int[] columns = new int[CAPACITY];
+        private int count;
+
+        int columnOf(char[] text, int length)
+        {
+            for (int n = 0; n < count; n++) {
+                if (Arrays.equals(keys[n], 0, keys[n].length, text, 0, length))
+                    return columns[n];
+            }
+
+            int column = BulletinImporter.columnOf(new String(text, 0, length));
+            if (count < CAPACITY) {
+                keys[count] = Arrays.copyOf(text, length);
+                columns[count++] = column;
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Buffered access to the characters of a Reader. Provides whole lines for CSV and tokens
+     * for JSON. The results are kept in reusable arrays.
+     */
+    private final class CharScanner
+    {
+        private final Reader reader;
+        private final char[] buffer = new char[1 << 16];
+        private int position;
+        private int limit;
+        private int pushBack = -1;
+        private int lineNumber = 1;
+
+        // current line (CSV)
+        char[] line = new char[256];
+        int length;
+
+        // current string or number (JSON)
+        char[] text = new char[64];
+        int textLength;
+
+        CharScanner(Reader reader)
+        {
+            this.reader = reader;
+        }
+
+        private int read() throws IOException
+        {
+            if (pushBack >= 0) {
+                int c = pushBack;
+                pushBack = -1;
+                return c;
+            }
+
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+
+            char c = buffer[position++];
+            if (c == '\n') lineNumber++;
+            return c;
+        }
+
+        /**
+         * Read the next line without the line terminator.
+         *
+         * @return  false at the end of the input
+         */
+        boolean readLine() throws IOException
+        {
+            length = 0;
+            int c = read();
+            if (c < 0)
+                return false;
+
+            while (c >= 0 && c != '\n') {
+                if (c != '\r') {
+                    line = ensureCapacity(line, length + 1);
+                    line[length++] = (char) c;
+                }
+                c = read();
+            }
+            return true;
+        }
+
+        /**
+         * @return  the next character which is not a blank, -1 at the end of the input
+         */
+        int nextToken() throws IOException
+        {
+            int c = read();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r')
+                c = read();
+            return c;
+        }
+
+        void expect(char token) throws IOException
+        {
+            if (nextToken() != token)
+                throw error(this, "'" + token + "' expected");
+        }
+
+        // read a string into text, the opening '"' has been read already
+        void readString() throws IOException
+        {
+            textLength = 0;
+            int c = read();
+            while (c != '"') {
+                if (c < 0)
+                    throw error(this, "unterminated string");
+                if (c == '\\') {
+                    c = read();
+                    switch (c) {
+                        case 'n' -> c = '\n';
+                        case 't' -> c = '\t';
+                        case 'r' -> c = '\r';
+                        case 'b' -> c = '\b';
+                        case 'f' -> c = '\f';
+                        case 'u' -> c = (char) ((hex(read()) << 12) | (hex(read()) << 8) | (hex(read()) << 4) | hex(read()));
+                        default -> { }
+                    }
+                }
+                text = ensureCapacity(text, textLength + 1);
+                text[textLength++] = (char) c;
+                c = read();
+            }
+        }
+
+        // read a number into text, its first character has been read already
+        void readNumber(int first) throws IOException
+        {
+            textLength = 0;
+            int c = first;
+            while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                text = ensureCapacity(text, textLength + 1);
+                text[textLength++] = (char) c;
+                c = read();
+            }
+            pushBack = c;
+        }
+
+        // skip a value, its first character has been read already
+        void skipValue(int first) throws IOException
+        {
+            switch (first) {
+                case '"' -> readString();
+                case '{', '[' -> {
+                    int depth = 1;
+                    while (depth > 0) {
+                        int c = read();
+                        if (c < 0)
+                            throw error(this, "unexpected end of input");
+                        if (c == '"')
+                            readString();
+                        else if (c == '{' || c == '[')
+                            depth++;
+                        else if (c == '}' || c == ']')
+                            depth--;
+                    }
+                }
+                default -> {
+                    // number or literal (null, true, false)
+                    int c = first;
+                    while (c >= 0 && c != ',' && c != '}' && c != ']' && c > ' ')
+                        c = read();
+                    pushBack = c;
+                }
+            }
+        }
+
+        private int hex(int c) throws IOException
+        {
+            int value = Character.digit(c, 16);
+            if (value < 0)
+                throw error(this, "invalid escape sequence");
+            return value;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+/**
+ * The values published for a reservoir each day. Each metric is stored in a column of its own
+ * in a {@link ReservoirTable}.
+ *
+ * @author grimm
+ */
+public enum Metric
+{
+    FILL_LEVEL("Fill level", "%"),
+    VOLUME("Volume", "Mio. m\u00b3"),
+    INFLOW("Inflow", "m\u00b3/s"),
+    OUTFLOW("Outflow", "m\u00b3/s");
+
+    // values() clones the array on each call
+    static final Metric[] VALUES = values();
+
+    private final String label;
+    private final String unit;
+
+    private Metric(String label, String unit)
+    {
+        this.label = label;
+        this.unit = unit;
+    }
+
+    public String getLabel()
+    {
+        return label;
+    }
+
+    public String getUnit()
+    {
+        return unit;
+    }
+}
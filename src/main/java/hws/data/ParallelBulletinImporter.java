@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Imports many bulletin files in parallel, e.g. to fill in the history of decades from yearly
+ * files. The work is split by file and large CSV files are split further into byte ranges
+ * which start and end at line boundaries. Each part is parsed by a {@link BulletinImporter}
+ * into a store of its own, so the parts of one reservoir are sorted runs. Runs are merged
+ * pairwise while the tasks are joined and at last into the target store, one reservoir per
+ * task.<p>
+ *
+ * Readings of the same day are resolved as if the files had been imported one after the
+ * other in the given order. JSON files are not split. Like {@link BulletinImporter} the import
+ * fails without changing the store if a {@link ReservoirArchive} would get days before its
+ * last one.
+ *
+ * @author grimm
+ */
+public class ParallelBulletinImporter
+{
+    /** Default size of the byte ranges large CSV files are split into */
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private final ReservoirStore store;
+    private final ForkJoinPool pool;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Create an importer using the common pool.
+     *
+     * @param store  the store to import into
+     */
+    public ParallelBulletinImporter(ReservoirStore store)
+    {
+        this(store, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param store  the store to import into
+     * @param pool   pool for the parsing and merging tasks
+     */
+    public ParallelBulletinImporter(ReservoirStore store, ForkJoinPool pool)
+    {
+        this.store = store;
+        this.pool = pool;
+    }
+
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Set the size of the byte ranges CSV files are split into. Smaller ranges balance the
+     * load better, but every range costs a task and a run to merge.
+     *
+     * @param chunkSize  size in bytes
+     */
+    public void setChunkSize(int chunkSize)
+    {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import bulletin files, see {@link BulletinImporter} for the formats. The store must not
+     * be accessed by other threads until the import has finished.
+     *
+     * @param files  the bulletins
+     * @return       number of imported rows
+     * @throws IOException  if a file could not be read or has an invalid content
+     */
+    public int importFiles(Collection<Path> files) throws IOException
+    {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path file : files)
+            split(file, chunks);
+
+        if (chunks.isEmpty())
+            return 0;
+
+        Runs runs;
+        try {
+            runs = pool.invoke(new ParseTask(chunks, 0, chunks.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // archives only take later days, check all runs before the store is changed
+        for (Reservoir run : runs.store.getReservoirs()) {
+            Reservoir target = store.get(run.getName());
+            if (target != null)
+                BulletinImporter.checkMerge(target, run);
+        }
+
+        List<ForkJoinTask<?>> merges = new ArrayList<>();
+        for (Reservoir run : runs.store.getReservoirs()) {
+            Reservoir target = store.getOrCreate(run.getName());
+            merges.add(ForkJoinTask.adapt(() -> BulletinImporter.merge(target, run)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(merges)));
+
+        return runs.rows;
+    }
+
+    // split a file into chunks ending at line boundaries
+    private void split(Path file, List<Chunk> chunks) throws IOException
+    {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String reservoir = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+
+        switch (extension) {
+            case "json" -> chunks.add(new Chunk(file, reservoir, null, 0, -1));
+            case "csv" -> {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long size = channel.size();
+
+                    // skip empty lines in front of the header
+                    long start = 0;
+                    long end = nextLine(channel, start);
+                    while (end < size && read(channel, start, end).isBlank())
+                        end = nextLine(channel, start = end);
+
+                    String header = read(channel, start, end).trim();
+                    if (header.isEmpty())
+                        return;
+
+                    for (start = end; start < size; start = end) {
+                        end = start + chunkSize < size ? nextLine(channel, start + chunkSize) : size;
+                        chunks.add(new Chunk(file, reservoir, header, start, end));
+                    }
+                }
+            }
+            default -> throw new IOException("Unknown bulletin format: " + file);
+        }
+    }
+
+    // position behind the next '\n' at or after position, the file size if there is none
+    private static long nextLine(FileChannel channel, long position) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (true) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+            if (count < 0)
+                return channel.size();
+
+            for (int n = 0; n < count; n++) {
+                if (buffer.get(n) == '\n')
+                    return position + n + 1;
+            }
+            position += count;
+        }
+    }
+
+    private static String read(FileChannel channel, long start, long end) throws IOException
+    {
+        return new String(readBytes(channel, start, end), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(FileChannel channel, long start, long end) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0)
+                throw new IOException("Unexpected end of file");
+        }
+        return buffer.array();
+    }
+
+    /*************************************************************************
+     *                                                                       *
+     * Tasks                                                                 *
+     *                                                                       *
+     ************************************************************************/
+
+    /**
+     * A part of a bulletin file. The end of JSON files is -1, they are read as a whole.
+     */
+    private record Chunk(Path file, String reservoir, String header, long start, long end)
+    {
+    }
+
+    /**
+     * The readings parsed from some chunks, one table per reservoir.
+     */
+    private static final class Runs
+    {
+        final ReservoirStore store = new ReservoirStore();
+        int rows;
+
+        // merge later runs into this one, they win for days in both
+        void merge(Runs later)
+        {
+            for (Reservoir run : later.store.getReservoirs()) {
+                Reservoir reservoir = store.get(run.getName());
+                if (reservoir == null)
+                    store.add(run);
+                else
+                    ((ReservoirTable) reservoir).merge(run);
+            }
+            rows += later.rows;
+        }
+    }
+
+    @SuppressWarnings("serial")     // never serialized
+    private static final class ParseTask
+    extends RecursiveTask<Runs>
+    {
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<Chunk> chunks, int from, int to)
+        {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Runs compute()
+        {
+            if (to - from == 1)
+                return parse(chunks.get(from));
+
+            int middle = (from + to) >>> 1;
+            ParseTask first = new ParseTask(chunks, from, middle);
+            first.fork();
+            Runs second = new ParseTask(chunks, middle, to).compute();
+
+            Runs runs = first.join();
+            runs.merge(second);
+            return runs;
+        }
+
+        private static Runs parse(Chunk chunk)
+        {
+            Runs runs = new Runs();
+            BulletinImporter importer = new BulletinImporter(runs.store);
+            try {
+                if (chunk.end() < 0) {
+                    runs.rows = importer.importFile(chunk.file());
+                } else {
+                    byte[] bytes;
+                    try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+                        bytes = readBytes(channel, chunk.start(), chunk.end());
+                    }
+                    Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+                    runs.rows = importer.importCsv(reader, chunk.reservoir(), chunk.header());
+                }
+            } catch (IOException e) {
+                String message = chunk.start() > 0
+                        ? String.format("%s, from byte %d: %s", chunk.file(), chunk.start(), e.getMessage())
+                        : chunk.file() + ": " + e.getMessage();
+                throw new UncheckedIOException(new IOException(message, e));
+            }
+            return runs;
+        }
+    }
+}
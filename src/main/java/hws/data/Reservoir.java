@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+/**
+ * The daily readings of one reservoir. The days are sorted in ascending order and addressed
+ * by their row. Implementations keep the readings in columns of primitives, either in memory
+ * ({@link ReservoirTable}) or in a memory mapped file ({@link ReservoirArchive}).
+ *
+ * @author grimm
+ */
+public interface Reservoir
+{
+    public String getName();
+
+    /**
+     * @return  number of days with readings
+     */
+    public int size();
+
+    public default boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Each change of the readings increments the version. Views could use it to find out if
+     * they have to be refreshed.
+     *
+     * @return  version of the readings
+     */
+    public int getVersion();
+
+    /**
+     * The version of the last change which inserted a row in front of the last one or changed
+     * a row before the last one. As long as it stays the same, days have only been appended and
+     * the last day has been completed, so a view only needs to look at the tail again. The
+     * default treats each change as such a rewrite.
+     *
+     * @return  version of the last change in front of the last row
+     */
+    public default int getRewriteVersion()
+    {
+        return getVersion();
+    }
+
+    /**
+     * @param row  index of the day
+     * @return     date as epoch day
+     */
+    public int getEpochDay(int row);
+
+    /**
+     * @param row     index of the day
+     * @param metric  the metric
+     * @return        value, NaN if the metric hasn't been published for this day
+     */
+    public float getValue(int row, Metric metric);
+
+    /**
+     * Find the row of a day with a binary search.
+     *
+     * @param epochDay  date as epoch day
+     * @return          the row, or (-(insertion point) - 1) if there is no reading for the day
+     */
+    public int indexOf(int epochDay);
+
+    /**
+     * Set the value of a metric for a day. The row of the day is created if necessary.
+     *
+     * @param epochDay  date as epoch day
+     * @param metric    the metric
+     * @param value     the value
+     */
+    public void set(int epochDay, Metric metric, float value);
+
+    /**
+     * Set all metrics of a day at once.
+     *
+     * @param epochDay  date as epoch day
+     * @param values    values in the order of {@link Metric#values()}
+     */
+    public void set(int epochDay, float... values);
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * The readings of one reservoir in a binary file which is accessed through a memory mapping.
+ * Opening an archive only reads its header and maps the file read-only as it is, the readings
+ * are paged in by the operating system when they are accessed. The values are read straight out
+ * of the mapping, nothing is copied onto the heap. The file is mapped writable when a day is set
+ * for the first time, so read-only files could be opened as well.<p>
+ *
+ * The file consists of a header followed by fixed-width records, one for each day in
+ * ascending order:
+ * <pre>
+ *   Header (80 bytes)
+ *     int    magic "HWSA"
+ *     int    format version
+ *     int    number of metrics per record
+ *     int    number of records
+ *     short  length of the name in bytes
+ *     byte[] name as UTF-8, padded to 62 bytes
+ *   Record (4 + 4 * metrics bytes)
+ *     int    date as epoch day
+ *     float  value of each {@link Metric}, NaN if not published
+ * </pre>
+ * All numbers are big endian. New days are appended at the tail of the file, which is
+ * enlarged in steps of a year, so appending a day is a plain write into the mapping. Only the
+ * values of the last day could be changed, earlier days are read-only.<p>
+ *
+ * The records are rows holding a day with all its values rather than separate columns for the
+ * days and each metric. A day is appended with a single write at the tail, while columns would
+ * have to reserve room in each of them or be moved whenever the file grows. In return a metric
+ * is read with a stride of one record instead of sequentially.
+ *
+ * @author grimm
+ */
+public class ReservoirArchive
+implements Reservoir, Closeable
+{
+    public static final String EXTENSION = ".hws";
+
+    private static final int MAGIC = 0x48575341;        // "HWSA"
+    private static final int FORMAT_VERSION = 1;
+    private static final int NAME_LENGTH = 62;
+    private static final int OFFSET_METRICS = 8;
+    private static final int OFFSET_COUNT = 12;
+    private static final int OFFSET_NAME = 16;
+    static final int HEADER_SIZE = OFFSET_NAME + 2 + NAME_LENGTH;
+    static final int RECORD_SIZE = 4 + 4 * Metric.VALUES.length;
+    private static final int GROWTH = 366;               // records
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final String name;
+    private MappedByteBuffer buffer;
+    private int size;
+    private int capacity;
+    private int version;
+
+    private ReservoirArchive(FileChannel channel, boolean writable, String name, int size)
+    {
+        this.channel = channel;
+        this.writable = writable;
+        this.name = name;
+        this.size = size;
+    }
+
+    /**
+     * Check whether the name of a reservoir fits into the header of an archive.
+     *
+     * @param name  name of the reservoir
+     * @return      true if it could be stored
+     */
+    public static boolean isValidName(String name)
+    {
+        return name.getBytes(StandardCharsets.UTF_8).length <= NAME_LENGTH;
+    }
+
+    /**
+     * Derive the name of an archive file from the name of a reservoir. Letters, digits, blanks,
+     * hyphens and underscores are kept, any other character is percent-encoded as UTF-8, so the
+     * file name neither contains separators nor dots and different names give different files.
+     *
+     * @param name  name of the reservoir
+     * @return      file name including the extension
+     */
+    public static String toFileName(String name)
+    {
+        StringBuilder fileName = new StringBuilder(name.length() + EXTENSION.length());
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == ' ' || c == '-' || c == '_')
+                fileName.append(c);
+            else
+                fileName.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+        }
+        return fileName.append(EXTENSION).toString();
+    }
+
+    /**
+     * Create a new, empty archive.
+     *
+     * @param file  path of the file, which must not exist yet
+     * @param name  name of the reservoir
+     * @return      the archive
+     * @throws IOException  if the file could not be created
+     */
+    public static ReservoirArchive create(Path file, String name) throws IOException
+    {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > NAME_LENGTH)
+            throw new IllegalArgumentException("Name too long: " + name);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ReservoirArchive archive = new ReservoirArchive(channel, true, name, 0);
+            archive.map(FileChannel.MapMode.READ_WRITE, GROWTH);
+            archive.buffer.putInt(0, MAGIC);
+            archive.buffer.putInt(4, FORMAT_VERSION);
+            archive.buffer.putInt(OFFSET_METRICS, Metric.VALUES.length);
+            archive.buffer.putInt(OFFSET_COUNT, 0);
+            archive.buffer.putShort(OFFSET_NAME, (short) nameBytes.length);
+            archive.buffer.put(OFFSET_NAME + 2, nameBytes);
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing archive. Only the header is read and the file isn't changed until a day
+     * is set. A read-only file is opened for reading only.
+     *
+     * @param file  path of the file
+     * @return      the archive
+     * @throws IOException  if the file could not be opened or isn't an archive
+     */
+    public static ReservoirArchive open(Path file) throws IOException
+    {
+        FileChannel channel;
+        boolean writable = true;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (AccessDeniedException e) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            writable = false;
+        }
+
+        try {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("Not a reservoir archive: " + file);
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("Not a reservoir archive: " + file);
+            if (header.getInt(4) != FORMAT_VERSION || header.getInt(OFFSET_METRICS) != Metric.VALUES.length)
+                throw new IOException("Unsupported archive format: " + file);
+
+            int size = header.getInt(OFFSET_COUNT);
+            if (size < 0 || HEADER_SIZE + (long) size * RECORD_SIZE > channel.size())
+                throw new IOException("Archive is truncated: " + file);
+
+            int nameLength = header.getShort(OFFSET_NAME);
+            if (nameLength < 0 || nameLength > NAME_LENGTH)
+                throw new IOException("Invalid name length " + nameLength + ": " + file);
+            byte[] nameBytes = new byte[nameLength];
+            header.get(OFFSET_NAME + 2, nameBytes);
+
+            ReservoirArchive archive = new ReservoirArchive(channel, writable,
+                    new String(nameBytes, StandardCharsets.UTF_8), size);
+            archive.map(FileChannel.MapMode.READ_ONLY, (int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE));
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write all readings of a reservoir into a new archive.
+     *
+     * @param file       path of the file, which must not exist yet
+     * @param reservoir  the readings
+     * @return           the archive
+     * @throws IOException  if the file could not be written
+     */
+    public static ReservoirArchive write(Path file, Reservoir reservoir) throws IOException
+    {
+        ReservoirArchive archive = create(file, reservoir.getName());
+        archive.map(FileChannel.MapMode.READ_WRITE, reservoir.size() + GROWTH);
+
+        float[] values = new float[Metric.VALUES.length];
+        for (int row = 0; row < reservoir.size(); row++) {
+            for (Metric metric : Metric.VALUES)
+                values[metric.ordinal()] = reservoir.getValue(row, metric);
+            archive.set(reservoir.getEpochDay(row), values);
+        }
+        archive.force();
+        return archive;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * Days are only appended to an archive, so its rows are never rewritten.
+     */
+    @Override
+    public int getRewriteVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getEpochDay(int row)
+    {
+        Objects.checkIndex(row, size);
+        return buffer.getInt(HEADER_SIZE + row * RECORD_SIZE);
+    }
+
+    @Override
+    public float getValue(int row, Metric metric)
+    {
+        Objects.checkIndex(row, size);
+        return buffer.getFloat(HEADER_SIZE + row * RECORD_SIZE + 4 + 4 * metric.ordinal());
+    }
+
+    @Override
+    public int indexOf(int epochDay)
+    {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int day = buffer.getInt(HEADER_SIZE + mid * RECORD_SIZE);
+
+            if (day < epochDay)
+                low = mid + 1;
+            else if (day > epochDay)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * Only the last day or a later one could be set.
+     *
+     * @throws IllegalArgumentException  if the day is before the last day of the archive
+     * @throws IllegalStateException     if the file is read-only
+     */
+    @Override
+    public void set(int epochDay, Metric metric, float value)
+    {
+        int row = row(epochDay);
+        buffer.putFloat(HEADER_SIZE + row * RECORD_SIZE + 4 + 4 * metric.ordinal(), value);
+        version++;
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * Only the last day or a later one could be set.
+     *
+     * @throws IllegalArgumentException  if the day is before the last day of the archive
+     * @throws IllegalStateException     if the file is read-only
+     */
+    @Override
+    public void set(int epochDay, float... values)
+    {
+        if (values.length != Metric.VALUES.length)
+            throw new IllegalArgumentException("Expected " + Metric.VALUES.length + " values");
+
+        int offset = HEADER_SIZE + row(epochDay) * RECORD_SIZE + 4;
+        for (int n = 0; n < values.length; n++)
+            buffer.putFloat(offset + 4 * n, values[n]);
+        version++;
+    }
+
+    /**
+     * Write the changes of the mapping to the file.
+     */
+    public void force()
+    {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        force();
+        channel.close();
+    }
+
+    // row of the day, appended at the tail if it is a new day
+    private int row(int epochDay)
+    {
+        if (size > 0) {
+            int lastDay = getEpochDay(size - 1);
+            if (epochDay < lastDay)
+                throw new IllegalArgumentException("Days could only be appended to the archive " + name);
+            if (epochDay == lastDay) {
+                mapWritable(capacity);
+                return size - 1;
+            }
+        }
+
+        mapWritable(size < capacity ? capacity : capacity + GROWTH);
+
+        int offset = HEADER_SIZE + size * RECORD_SIZE;
+        buffer.putInt(offset, epochDay);
+        for (int n = 0; n < Metric.VALUES.length; n++)
+            buffer.putFloat(offset + 4 + 4 * n, Float.NaN);
+
+        buffer.putInt(OFFSET_COUNT, ++size);
+        return size - 1;
+    }
+
+    // make sure the mapping is writable and has room for the given number of records
+    private void mapWritable(int records)
+    {
+        if (!buffer.isReadOnly() && records <= capacity)
+            return;
+        if (!writable)
+            throw new IllegalStateException("The archive " + name + " is read-only");
+
+        try {
+            map(FileChannel.MapMode.READ_WRITE, Math.max(records, capacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // map the header and the given number of records, a writable mapping grows the file if necessary
+    private void map(FileChannel.MapMode mode, int records) throws IOException
+    {
+        buffer = channel.map(mode, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+}
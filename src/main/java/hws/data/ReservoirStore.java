@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+/**
+ * All reservoirs with their readings, in the order they have been added.
+ *
+ * @author grimm
+ */
+public class ReservoirStore
+{
+    private final LinkedHashMap<String, Reservoir> reservoirs = new LinkedHashMap<>();
+
+    /**
+     * @param name  name of the reservoir
+     * @return      its readings or null if the store doesn't know the reservoir
+     */
+    public Reservoir get(String name)
+    {
+        return reservoirs.get(name);
+    }
+
+    /**
+     * @param name  name of the reservoir
+     * @return      its readings, a new {@link ReservoirTable} if the reservoir is unknown so far
+     */
+    public Reservoir getOrCreate(String name)
+    {
+        return reservoirs.computeIfAbsent(name, ReservoirTable::new);
+    }
+
+    /**
+     * Add the readings of a reservoir, e.g. an opened {@link ReservoirArchive}. Readings of a
+     * reservoir with the same name are replaced.
+     *
+     * @param reservoir  readings of the reservoir
+     */
+    public void add(Reservoir reservoir)
+    {
+        reservoirs.put(reservoir.getName(), reservoir);
+    }
+
+    public Collection<Reservoir> getReservoirs()
+    {
+        return Collections.unmodifiableCollection(reservoirs.values());
+    }
+
+    public int size()
+    {
+        return reservoirs.size();
+    }
+
+    public void clear()
+    {
+        reservoirs.clear();
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The daily readings of one reservoir, stored column by column. The dates are kept as epoch
+ * days in an int array in ascending order, each {@link Metric} has a float array of its own.
+ * A reading therefore takes 4 bytes for the date plus 4 bytes per metric, without any object
+ * per sample. Metrics which have not been published for a day are NaN.<p>
+ *
+ * Readings are usually appended in chronological order, which costs O(1). Readings for a day
+ * before the last one are inserted at their position.
+ *
+ * @author grimm
+ */
+public class ReservoirTable
+implements Reservoir
+{
+    private static final int INITIAL_CAPACITY = 366;
+
+    private final String name;
+    private int size;
+    private int[] epochDays;
+    private final float[][] columns = new float[Metric.VALUES.length][];
+    private int version;
+    private int rewriteVersion;
+
+    public ReservoirTable(String name)
+    {
+        this.name = Objects.requireNonNull(name);
+        epochDays = new int[INITIAL_CAPACITY];
+        for (int n = 0; n < columns.length; n++)
+            columns[n] = new float[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int getVersion()
+    {
+        return version;
+    }
+
+    @Override
+    public int getRewriteVersion()
+    {
+        return rewriteVersion;
+    }
+
+    @Override
+    public int getEpochDay(int row)
+    {
+        Objects.checkIndex(row, size);
+        return epochDays[row];
+    }
+
+    @Override
+    public float getValue(int row, Metric metric)
+    {
+        Objects.checkIndex(row, size);
+        return columns[metric.ordinal()][row];
+    }
+
+    @Override
+    public int indexOf(int epochDay)
+    {
+        return Arrays.binarySearch(epochDays, 0, size, epochDay);
+    }
+
+    @Override
+    public void set(int epochDay, Metric metric, float value)
+    {
+        int lastRow = size - 1;
+        int row = row(epochDay);
+        columns[metric.ordinal()][row] = value;
+        changed(row, lastRow);
+    }
+
+    @Override
+    public void set(int epochDay, float... values)
+    {
+        if (values.length != columns.length)
+            throw new IllegalArgumentException("Expected " + columns.length + " values");
+
+        int lastRow = size - 1;
+        int row = row(epochDay);
+        for (int n = 0; n < columns.length; n++)
+            columns[n][row] = values[n];
+        changed(row, lastRow);
+    }
+
+    /**
+     * Merge the readings of another reservoir into this table in a single pass over both. The
+     * values of the other reservoir replace the ones of this table, except NaN. This is much
+     * cheaper than setting the readings one by one when the days of both interleave.
+     *
+     * @param other  readings to add, e.g. a run imported in parallel
+     */
+    public void merge(Reservoir other)
+    {
+        int otherSize = other.size();
+        if (otherSize == 0)
+            return;
+
+        int lastRow = size - 1;
+        int firstRow = indexOf(other.getEpochDay(0));
+        if (firstRow < 0)
+            firstRow = -firstRow - 1;
+
+        // number of days in both
+        int common = 0;
+        for (int i = 0, j = 0; i < size && j < otherSize; ) {
+            int day = other.getEpochDay(j);
+            if (epochDays[i] < day) {
+                i++;
+            } else {
+                if (epochDays[i] == day) {
+                    common++;
+                    i++;
+                }
+                j++;
+            }
+        }
+
+        // merge from the back, so no row is overwritten before it has been moved
+        int mergedSize = size + otherSize - common;
+        ensureCapacity(mergedSize);
+
+        int i = size - 1;
+        int j = otherSize - 1;
+        for (int row = mergedSize - 1; j >= 0; row--) {
+            int day = other.getEpochDay(j);
+            if (i >= 0 && epochDays[i] > day) {
+                epochDays[row] = epochDays[i];
+                for (float[] column : columns)
+                    column[row] = column[i];
+                i--;
+            } else {
+                boolean both = i >= 0 && epochDays[i] == day;
+                epochDays[row] = day;
+                for (int n = 0; n < columns.length; n++) {
+                    float value = other.getValue(j, Metric.VALUES[n]);
+                    columns[n][row] = (both && Float.isNaN(value)) ? columns[n][i] : value;
+                }
+                if (both)
+                    i--;
+                j--;
+            }
+        }
+
+        size = mergedSize;
+        changed(firstRow, lastRow);
+    }
+
+    /**
+     * Make room for further days to avoid growing the arrays step by step.
+     *
+     * @param capacity  number of days
+     */
+    public void ensureCapacity(int capacity)
+    {
+        if (capacity <= epochDays.length)
+            return;
+
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        for (int n = 0; n < columns.length; n++)
+            columns[n] = Arrays.copyOf(columns[n], capacity);
+    }
+
+    public void clear()
+    {
+        size = 0;
+        version++;
+        rewriteVersion = version;
+    }
+
+    // firstRow is the first changed row, lastRow the last row before the change
+    private void changed(int firstRow, int lastRow)
+    {
+        version++;
+        if (firstRow < lastRow)
+            rewriteVersion = version;
+    }
+
+    // row of the day, a new row with all values NaN is created if there is none
+    private int row(int epochDay)
+    {
+        if (size == 0 || epochDay > epochDays[size - 1]) {
+            growIfFull();
+            return newRow(size++, epochDay);
+        }
+
+        int row = indexOf(epochDay);
+        if (row >= 0)
+            return row;
+
+        row = -row - 1;
+        growIfFull();
+
+        System.arraycopy(epochDays, row, epochDays, row + 1, size - row);
+        for (float[] column : columns)
+            System.arraycopy(column, row, column, row + 1, size - row);
+        size++;
+
+        return newRow(row, epochDay);
+    }
+
+    private int newRow(int row, int epochDay)
+    {
+        epochDays[row] = epochDay;
+        for (float[] column : columns)
+            column[row] = Float.NaN;
+        return row;
+    }
+
+    private void growIfFull()
+    {
+        if (size == epochDays.length)
+            ensureCapacity(epochDays.length + (epochDays.length >> 1));
+    }
+}
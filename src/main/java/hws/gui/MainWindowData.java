@@ -16,14 +16,289 @@
  */
 package hws.gui;
 
+import hws.data.BulletinImporter;
+import hws.data.Metric;
+import hws.data.ParallelBulletinImporter;
+import hws.data.Reservoir;
+import hws.data.ReservoirArchive;
+import hws.data.ReservoirStore;
+import hws.gui.charts.DownsampledSeries;
+import hws.gui.charts.LocalDateAxis;
+import hws.gui.charts.TimeSeriesSource;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 /**
+ * Data model of the main window. The readings of all reservoirs are kept in a
+ * {@link ReservoirStore}. Charts don't get a copy of them, they read the columns of the store
+ * through {@link TimeSeriesSource} views.<p>
+ *
+ * The history is kept in {@link ReservoirArchive reservoir archives}, one file per reservoir.
+ * They are memory mapped, so opening them doesn't depend on their size and the views read the
+ * values straight out of the files.
  *
  * @author grimm
  */
 public class MainWindowData
 {
+    private final ReservoirStore store = new ReservoirStore();
+    private final List<ReservoirArchive> archives = new ArrayList<>();
+
     public MainWindowData()
     {
     }
+
+    public ReservoirStore getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Create a view on one metric of a reservoir. The view reads the store directly, so it
+     * always shows the current readings.
+     *
+     * @param reservoir  name of the reservoir
+     * @param metric     the metric
+     * @return           view on the readings
+     */
+    public TimeSeriesSource getSeries(String reservoir, Metric metric)
+    {
+        return new MetricView(store.getOrCreate(reservoir), metric);
+    }
+
+    /**
+     * Create a chart series for one metric of a reservoir. Only the samples visible on the
+     * axis are passed to the chart.
+     *
+     * @param axis       x-axis of the chart
+     * @param reservoir  name of the reservoir
+     * @param metric     the metric
+     * @return           series to add to the chart
+     */
+    public DownsampledSeries createSeries(LocalDateAxis axis, String reservoir, Metric metric)
+    {
+        return new DownsampledSeries(axis, getSeries(reservoir, metric), reservoir);
+    }
+
+    /**
+     * Import a bulletin file with daily readings into the store. Readings of reservoirs with
+     * an archive are appended to it.
+     *
+     * @param file  the bulletin, a CSV or JSON file
+     * @return      number of imported rows
+     * @throws IOException  if the file could not be read or has an invalid content
+     * @see BulletinImporter
+     */
+    public int importBulletin(Path file) throws IOException
+    {
+        return new BulletinImporter(store).importFile(file);
+    }
+
+    /**
+     * Import many bulletin files at once, e.g. the yearly files of the history. The files are
+     * parsed in parallel on the common pool.
+     *
+     * @param files  the bulletins, CSV or JSON files
+     * @return       number of imported rows
+     * @throws IOException  if a file could not be read or has an invalid content
+     * @see ParallelBulletinImporter
+     */
+    public int importBulletins(Collection<Path> files) throws IOException
+    {
+        return new ParallelBulletinImporter(store).importFiles(files);
+    }
+
+    /**
+     * Open all reservoir archives of a directory and add them to the store.
+     *
+     * @param directory  directory with the archive files
+     * @throws IOException  if an archive could not be opened
+     */
+    public void openArchives(Path directory) throws IOException
+    {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ReservoirArchive.EXTENSION)) {
+            for (Path file : files) {
+                ReservoirArchive archive = ReservoirArchive.open(file);
+                archives.add(archive);
+                store.add(archive);
+            }
+        }
+    }
+
+    /**
+     * Write the reservoirs which are held in memory only into new archives. Afterwards the
+     * store uses the archives, new readings are appended to the files. Views created before
+     * keep reading the former in-memory tables.<p>
+     *
+     * The names of the files are derived from the names of the reservoirs with
+     * {@link ReservoirArchive#toFileName(String)}. All names are checked before the first file
+     * is written, and if any archive fails, the new files are deleted again and the store is
+     * left unchanged.
+     *
+     * @param directory  directory for the archive files
+     * @throws IOException  if a name couldn't be stored, a file exists already or an archive
+     *                      could not be written
+     */
+    public void saveArchives(Path directory) throws IOException
+    {
+        List<Reservoir> reservoirs = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        for (Reservoir reservoir : store.getReservoirs()) {
+            if (reservoir instanceof ReservoirArchive)
+                continue;
+
+            if (!ReservoirArchive.isValidName(reservoir.getName()))
+                throw new IOException("Name too long for an archive: " + reservoir.getName());
+            Path file = directory.resolve(ReservoirArchive.toFileName(reservoir.getName()));
+            if (Files.exists(file))
+                throw new FileAlreadyExistsException(file.toString());
+            reservoirs.add(reservoir);
+            files.add(file);
+        }
+
+        List<ReservoirArchive> written = new ArrayList<>(reservoirs.size());
+        try {
+            for (int n = 0; n < reservoirs.size(); n++)
+                written.add(ReservoirArchive.write(files.get(n), reservoirs.get(n)));
+        } catch (IOException | RuntimeException e) {
+            for (int n = 0; n < written.size(); n++) {
+                try {
+                    written.get(n).close();
+                    Files.deleteIfExists(files.get(n));
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+
+        archives.addAll(written);
+        for (ReservoirArchive archive : written)
+            store.add(archive);
+    }
+
+    /**
+     * Write all changes to the archives and close them.
+     *
+     * @throws IOException  if an archive could not be closed
+     */
+    public void close() throws IOException
+    {
+        for (ReservoirArchive archive : archives)
+            archive.close();
+        archives.clear();
+    }
+
+    /**
+     * One metric of a reservoir. Days without a value of the metric are left out, so the
+     * rows are mapped whenever the reservoir has changed. As long as the reservoir reports no
+     * {@link Reservoir#getRewriteVersion() rewrite}, only the last mapped row and the appended
+     * ones are looked at again. A column without gaps needs no map at all.
+     */
+    private static final class MetricView
+    implements TimeSeriesSource
+    {
+        private final Reservoir reservoir;
+        private final Metric metric;
+
+        private int version;
+        private int rewriteVersion;
+        private int scanned;    // rows of the reservoir looked at so far
+        private int size;
+        private int[] rows;     // rows with a value, null: all rows
+
+        MetricView(Reservoir reservoir, Metric metric)
+        {
+            this.reservoir = reservoir;
+            this.metric = metric;
+            mapRows(0);
+        }
+
+        @Override
+        public int size()
+        {
+            update();
+            return size;
+        }
+
+        @Override
+        public int getEpochDay(int index)
+        {
+            update();
+            return reservoir.getEpochDay(row(index));
+        }
+
+        @Override
+        public double getValue(int index)
+        {
+            update();
+            return reservoir.getValue(row(index), metric);
+        }
+
+        @Override
+        public int getVersion()
+        {
+            return reservoir.getVersion();
+        }
+
+        private int row(int index)
+        {
+            Objects.checkIndex(index, size);
+            return rows == null ? index : rows[index];
+        }
+
+        private void update()
+        {
+            if (reservoir.getVersion() == version)
+                return;
+
+            // without a rewrite only the last row could have changed and rows were appended
+            if (reservoir.getRewriteVersion() != rewriteVersion || reservoir.size() < scanned)
+                mapRows(0);
+            else
+                mapRows(Math.max(scanned - 1, 0));
+        }
+
+        // map the rows from the given one on, the rows in front of it are kept
+        private void mapRows(int from)
+        {
+            version = reservoir.getVersion();
+            rewriteVersion = reservoir.getRewriteVersion();
+
+            if (from == 0)
+                rows = null;
+            if (rows == null)
+                size = Math.min(size, from);
+            else
+                while (size > 0 && rows[size - 1] >= from)
+                    size--;
+
+            int count = reservoir.size();
+            for (int row = from; row < count; row++) {
+                if (Float.isNaN(reservoir.getValue(row, metric))) {
+                    if (rows == null) {
+                        rows = new int[count];
+                        for (int k = 0; k < size; k++)
+                            rows[k] = k;
+                    }
+                } else {
+                    if (rows != null) {
+                        if (size == rows.length)
+                            rows = Arrays.copyOf(rows, Math.max(count, 2 * size));
+                        rows[size] = row;
+                    }
+                    size++;
+                }
+            }
+            scanned = count;
+        }
+    }
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Path;
+
+/**
+ * A line chart that draws its series into a {@link Canvas} instead of creating a Path and a
+ * symbol node for each data item. It could be used as content of a {@link ChartRangePane}
+ * just like a LineChart, the axes and the data are handled by XYChart as usual.<p>
+ *
+ * Each layout pass maps the data items with the display position of the axes and draws the
+ * lines of all series. Items which fall into the same pixel column are collapsed into one
+ * vertical stroke from their smallest to their largest value, so the number of drawn segments
+ * is limited by the width of the plot area and peaks remain visible. The items of a series must
+ * be sorted by their x value. The first visible item is found with a binary search, items left
+ * and right of the visible range are skipped except for the nearest one on each side.<p>
+ *
+ * Each series gets an empty Path as its node with the same style classes a LineChart uses
+ * ("chart-series-line", "series&lt;n&gt;" and "default-color&lt;n&gt;"). It draws nothing, the
+ * canvas takes the stroke the style sheets give it, so the CHART_COLOR_n colors of modena and
+ * user style sheets apply. The line width is set by {@link #setLineWidth(double)}.
+ *
+ * @param <X>    Datatype of the x-axis
+ * @param <Y>    Datatype of the y-axis
+ *
+ * @author grimm
+ */
+public class CanvasLineChart<X,Y>
+extends XYChart<X,Y>
+{
+    private static final int DEFAULT_COLORS = 8;
+
+    private final Canvas canvas = new Canvas();
+    private double lineWidth = 1.5;
+
+    public CanvasLineChart(Axis<X> xAxis, Axis<Y> yAxis)
+    {
+        this(xAxis, yAxis, FXCollections.<Series<X,Y>>observableArrayList());
+    }
+
+    public CanvasLineChart(Axis<X> xAxis, Axis<Y> yAxis, ObservableList<Series<X,Y>> data)
+    {
+        super(xAxis, yAxis);
+        setAnimated(false);
+        canvas.setManaged(false);
+        getPlotChildren().add(canvas);
+        setData(data);
+    }
+
+    public double getLineWidth()
+    {
+        return lineWidth;
+    }
+
+    public void setLineWidth(double lineWidth)
+    {
+        this.lineWidth = lineWidth;
+        requestChartLayout();
+    }
+
+    /**
+     * @return  the canvas the series are drawn into
+     */
+    Canvas getCanvas()
+    {
+        return canvas;
+    }
+
+    /**
+     * @param series  a series of this chart
+     * @return        the stroke the style sheets give the line of the series
+     */
+    Paint getStroke(Series<X,Y> series)
+    {
+        if (series.getNode() instanceof Path line && line.getStroke() != null)
+            return line.getStroke();
+        return Color.BLACK;
+    }
+
+    @Override
+    protected void layoutPlotChildren()
+    {
+        double width = getXAxis().getWidth();
+        double height = getYAxis().getHeight();
+
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setLineWidth(lineWidth);
+
+        ObservableList<Series<X,Y>> data = getData();
+        if (data == null)
+            return;
+
+        PathSink path = new PathSink() {
+                @Override
+                public void moveTo(double x, double y) { gc.moveTo(x, y); }
+
+                @Override
+                public void lineTo(double x, double y) { gc.lineTo(x, y); }
+            };
+
+        for (Series<X,Y> series : data) {
+            gc.setStroke(getStroke(series));
+            gc.beginPath();
+            buildPath(series, width, path);
+            gc.stroke();
+        }
+    }
+
+    /**
+     * Receives the segments of the line of a series.
+     */
+    interface PathSink
+    {
+        void moveTo(double x, double y);
+
+        void lineTo(double x, double y);
+    }
+
+    /**
+     * Build the line of a series for a plot area of the given width. The line starts at the
+     * nearest item left of the plot area and ends at the nearest one right of it. The items of
+     * a pixel column are collapsed into a vertical stroke.
+     *
+     * @param series  the series
+     * @param width   width of the plot area
+     * @param path    receives the segments
+     */
+    void buildPath(Series<X,Y> series, double width, PathSink path)
+    {
+        Axis<X> xAxis = getXAxis();
+        Axis<Y> yAxis = getYAxis();
+
+        double beforeX = Double.NaN;          // nearest item left of the plot area
+        double beforeY = Double.NaN;
+
+        int column = Integer.MIN_VALUE;       // pixel column collected so far
+        double columnX = 0;
+        double columnMin = 0;
+        double columnMax = 0;
+        double columnLast = 0;
+
+        List<Data<X,Y>> items = series.getData();
+        for (int i = Math.max(0, firstVisible(items, xAxis) - 1); i < items.size(); i++) {
+            Data<X,Y> item = items.get(i);
+            double x = xAxis.getDisplayPosition(item.getXValue());
+            double y = yAxis.getDisplayPosition(item.getYValue());
+            if (Double.isNaN(x) || Double.isNaN(y))
+                continue;
+
+            if (x < 0) {
+                beforeX = x;
+                beforeY = y;
+                continue;
+            }
+
+            if (column == Integer.MIN_VALUE) {
+                // the first visible item
+                if (Double.isNaN(beforeX)) {
+                    path.moveTo(x, y);
+                } else {
+                    path.moveTo(beforeX, beforeY);
+                    path.lineTo(x, y);
+                }
+            } else if ((int) x == column) {
+                columnMin = Math.min(columnMin, y);
+                columnMax = Math.max(columnMax, y);
+                columnLast = y;
+                continue;
+            } else {
+                strokeColumn(path, columnX, columnMin, columnMax, columnLast);
+                path.lineTo(x, y);
+            }
+
+            column = (int) x;
+            columnX = x;
+            columnMin = y;
+            columnMax = y;
+            columnLast = y;
+
+            // the first item right of the plot area ends the line
+            if (x > width)
+                break;
+        }
+
+        if (column != Integer.MIN_VALUE)
+            strokeColumn(path, columnX, columnMin, columnMax, columnLast);
+    }
+
+    // index of the first item at or right of the left edge of the plot area
+    private static <X,Y> int firstVisible(List<Data<X,Y>> items, Axis<X> xAxis)
+    {
+        int low = 0;
+        int high = items.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xAxis.getDisplayPosition(items.get(mid).getXValue()) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // vertical stroke over all items of a pixel column, ending at the last one
+    private static void strokeColumn(PathSink path, double x, double min, double max, double last)
+    {
+        if (min < max) {
+            path.lineTo(x, min);
+            path.lineTo(x, max);
+            path.lineTo(x, last);
+        }
+    }
+
+    // the style classes of the series depend on their index, like the ones of a LineChart
+    private void updateStyleClasses()
+    {
+        ObservableList<Series<X,Y>> data = getData();
+        for (int n = 0; n < data.size(); n++) {
+            Node line = data.get(n).getNode();
+            if (line != null)
+                line.getStyleClass().setAll("chart-series-line", "series" + n, "default-color" + (n % DEFAULT_COLORS));
+        }
+    }
+
+    /**
+     * @inheritDoc
+     * The symbols of the legend get the colors of the series lines.
+     */
+    @Override
+    protected void updateLegend()
+    {
+        super.updateLegend();
+
+        // the legend shows a label per series, its graphic is the symbol
+        if (getLegend() instanceof Parent legend) {
+            List<Node> items = legend.getChildrenUnmodifiable();
+            for (int n = 0; n < items.size(); n++) {
+                if (items.get(n) instanceof Label item && item.getGraphic() != null)
+                    item.getGraphic().getStyleClass().addAll("chart-line-symbol", "series" + n,
+                            "default-color" + (n % DEFAULT_COLORS));
+            }
+        }
+    }
+
+    /****************************************************************************************/
+    /*                        Items are not nodes here                                      */
+    /****************************************************************************************/
+
+    @Override
+    protected void dataItemAdded(Series<X,Y> series, int itemIndex, Data<X,Y> item) { }
+
+    @Override
+    protected void dataItemRemoved(Data<X,Y> item, Series<X,Y> series)
+    {
+        removeDataItemFromDisplay(series, item);
+    }
+
+    @Override
+    protected void dataItemChanged(Data<X,Y> item) { }
+
+    @Override
+    protected void seriesAdded(Series<X,Y> series, int seriesIndex)
+    {
+        // carries the style of the line only, it has no path elements
+        Path line = new Path();
+        line.setManaged(false);
+        series.setNode(line);
+        getPlotChildren().add(line);
+        updateStyleClasses();
+    }
+
+    @Override
+    protected void seriesRemoved(Series<X,Y> series)
+    {
+        getPlotChildren().remove(series.getNode());
+        removeSeriesFromDisplay(series);
+        updateStyleClasses();
+    }
+}
@@ -18,13 +18,24 @@ package hws.gui.charts;
 
 import hws.gui.charts.skins.RangeControlSet;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.chart.CategoryAxis;
 
 /**
+ * RangeConverter for a {@link CategoryAxis}. The axis shows a window of consecutive
+ * categories out of all categories of the data. The bounds of the window are the indices of
+ * the first and the last visible category.<p>
+ *
+ * The categories of the axis are not replaced as a whole if the window moves. Only the
+ * categories that leave the window are removed and the ones that enter it are added at the
+ * respective end. Both bounds are applied in one step, so the axis and the chart are updated
+ * once per move.<p>
+ *
+ * The position of each category is kept in a hash index. Looking up a category by its name
+ * costs O(1) and duplicates in the data are dropped while the list is built.
  *
  * @author grimm
  */
@@ -33,8 +44,13 @@ extends RangeConverter<String>
 {
     private CategoryAxis axis;
     private final ArrayList<String> categoryList = new ArrayList<>();
-    private final IntegerProperty upperBoundProperty = new SimpleIntegerProperty();
-    private final IntegerProperty lowerBoundProperty = new SimpleIntegerProperty();
+    private final HashMap<String,Integer> categoryIndex = new HashMap<>();   // category -> position in categoryList
+    private int lowerBound;
+    private int upperBound;
+
+    // part of categoryList currently shown by the axis, -1 if unknown
+    private int windowLower = -1;
+    private int windowUpper = -1;
     
     public CategoryRangeConverter(CategoryAxis axis)
     {
@@ -43,20 +59,22 @@ extends RangeConverter<String>
         
         if (axis.isAutoRanging())
             axis.setAutoRanging(false);
-
-        upperBoundProperty.addListener(axisUpperBoundlistener);
-        lowerBoundProperty.addListener(axisLowerBoundlistener);
     }
   
     @Override
     public void updateData(List<String> list)
     {
         categoryList.clear();
-        categoryList.addAll(list);
-        axis.getCategories().setAll(categoryList);
+        categoryIndex.clear();
+
+        for (String category : list) {
+            if (category != null && categoryIndex.putIfAbsent(category, categoryList.size()) == null)
+                categoryList.add(category);
+        }
 
-        lowerBoundProperty.set(0);
-        upperBoundProperty.set(list.isEmpty() ? 0 : categoryList.size() - 1);
+        windowLower = -1;
+        windowUpper = -1;
+        update(() -> applyBounds(0, categoryList.size() - 1));
     }
 
     @Override
@@ -72,62 +90,52 @@ extends RangeConverter<String>
         } else {
             rangeCTRL.setUpperLimit(categoryToPercent(getUpperBound()));
             rangeCTRL.setLowerLimit(categoryToPercent(getLowerBound()));
-            rangeCTRL.setRangeLengthAndPosition(calcRangeLength());
+            rangeCTRL.setRangeLengthAndPosition(calcRangePosition(), calcRangeLength());
         }
 
         ChangeListener<Number> upperRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
 
-                System.err.printf("%s%d UpperRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+                RangeTrace.enter(RangeTrace.Event.UPPER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
 
-                int category = percentToCategory(nVal.doubleValue());
-                if (category < getLowerBound())
-                    rangeCTRL.setUpperLimit(oVal.doubleValue());
-                
-                else if (category != getUpperBound()) {
-                    setUpperBound(category);             // calls axisUpperBoundListener
-                    double rangeLen = calcRangeLength();
-                    rangeCTRL.setRangeLengthAndPosition(calcRangePosition(), rangeLen);
-                }
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.UPPER_RANGE_LIMIT, () -> {
+                        int category = percentToCategory(percent);
+                        applyBounds(lowerBound, Math.max(lowerBound, category));
+                    });
 
-                level -= 1;
+                RangeTrace.exit();
             };
 
         ChangeListener<Number> lowerRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
 
-                System.err.printf("%s%d LowerRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+                RangeTrace.enter(RangeTrace.Event.LOWER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
 
-                int category = percentToCategory(nVal.doubleValue());
-                if (category > getUpperBound())
-                    rangeCTRL.setLowerLimit(oVal.doubleValue());
-                
-                else if (category != getLowerBound()) {
-                    setLowerBound(category);              // calls axisLowerBoundListener
-                    double rangeLen = calcRangeLength();
-                    rangeCTRL.setRangeLengthAndPosition(calcRangePosition(), rangeLen);
-                }
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.LOWER_RANGE_LIMIT, () -> {
+                        int category = percentToCategory(percent);
+                        applyBounds(Math.min(category, upperBound), upperBound);
+                    });
 
-                level -= 1;
+                RangeTrace.exit();
             };
 
         ChangeListener<Number> rangePositionlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
                
-                System.err.printf("%s%d RangePosition (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
-
-                int diff = getUpperBound() - getLowerBound();
-                double lowLimit = (100.0 - calcRangeLength())/100 * nVal.doubleValue();
-                int lowBound = (int) Math.round(lowLimit / 100.0 * (categoryList.size()));
-                int upBound = lowBound + diff;
+                RangeTrace.enter(RangeTrace.Event.RANGE_POSITION, this, oVal.doubleValue(), nVal.doubleValue());
+
+                // move the window and keep the number of visible categories
+                double position = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.RANGE_POSITION, () -> {
+                        int span = upperBound - lowerBound;
+                        int lower = (int) Math.round(rangeCTRL.lowerLimitAt(position) / 100.0 * categoryList.size());
+                        lower = Math.max(0, Math.min(lower, categoryList.size() - 1 - span));
+                        applyBounds(lower, lower + span);
+                    });
                 
-                setLowerBound(lowBound);
-                setUpperBound(upBound);
-                
-                level -= 1;
+                RangeTrace.exit();
             };
 
         rangeCTRL.addUpperLimitListener(upperRangeLimitlistener);
@@ -137,17 +145,23 @@ extends RangeConverter<String>
 
     double calcRangeLength()
     {
-        return 100.0 * axis.getCategories().size() / categoryList.size();
+        if (categoryList.isEmpty()) return 100;
+
+        return 100.0 * (upperBound - lowerBound + 1) / categoryList.size();
     }
-    
+
+    /**
+     * The range thumb covers the visible categories. So its positions map to the first
+     * visible category as {@code lower = position/100 * (size - visible)}.
+     *
+     * @return  position of the range thumb for the current bounds
+     */
     double calcRangePosition()
     {
-        int max = categoryList.size()-1;
-        if (getLowerBound() == 0) return 0;
-        if (getUpperBound() == max) return 100;
+        int free = categoryList.size() - 1 - (upperBound - lowerBound);
+        if (free <= 0) return 0;
 
-        double offs = getLowerBound() + (getUpperBound() - getLowerBound())/2.0;
-        return 100.0 * offs / max;
+        return 100.0 * lowerBound / free;
     }
     
     double categoryToPercent(int idx)
@@ -159,6 +173,28 @@ extends RangeConverter<String>
         return idx * step;
     }
 
+    /**
+     * Position of a category in percent, as used by the range controls.
+     *
+     * @param category  name of the category
+     * @return          position in percent or NaN if the data doesn't contain the category
+     */
+    public double categoryToPercent(String category)
+    {
+        int idx = indexOf(category);
+        return idx < 0 ? Double.NaN : categoryToPercent(idx);
+    }
+
+    /**
+     * @param category  name of the category
+     * @return          index of the category in the data or -1 if it isn't contained
+     */
+    public int indexOf(String category)
+    {
+        Integer idx = categoryIndex.get(category);
+        return idx == null ? -1 : idx;
+    }
+
     int percentToCategory(double percent)
     {
         if (categoryList.size() <= 1) return 0;
@@ -169,60 +205,107 @@ extends RangeConverter<String>
 
     int getUpperBound()
     {
-        return upperBoundProperty.get();
+        return upperBound;
     }
 
     void setUpperBound(int idx)
     {
-        int max = categoryList.size() - 1;
-        if (idx > max) idx = max;
-        if (idx < 0 || max < 0) idx = 0;
-
-        upperBoundProperty.set(idx);
+        update(() -> applyBounds(lowerBound, idx));
     }
 
     int getLowerBound()
     {
-        return lowerBoundProperty.get();
+        return lowerBound;
     }
     
     void setLowerBound(int idx)
+    {
+        update(() -> applyBounds(idx, upperBound));
+    }
+
+    /**
+     * Set both bounds of the window at once.
+     *
+     * @param lower  index of the first visible category
+     * @param upper  index of the last visible category
+     */
+    void setBounds(int lower, int upper)
+    {
+        update(() -> applyBounds(lower, upper));
+    }
+
+    // clip the bounds to the categories and show the new window on the axis
+    private void applyBounds(int lower, int upper)
+    {
+        lowerBound = clip(lower);
+        upperBound = clip(upper);
+        applyWindow();
+    }
+
+    private int clip(int idx)
     {
         int max = categoryList.size() - 1;
         if (idx > max) idx = max;
         if (idx < 0 || max < 0) idx = 0;
 
-        lowerBoundProperty.set(idx);
+        return idx;
     }
 
+    /**
+     * Bring the categories of the axis in line with the bounds. If the new window overlaps
+     * the old one, only the categories at both ends are removed or added.
+     */
+    private void applyWindow()
+    {
+        ObservableList<String> categories = axis.getCategories();
 
-    /****************************************************************************************/
-    /*                              Listener definitions                                    */    
-    /****************************************************************************************/
-
-    int level = 0;
+        if (categoryList.isEmpty()) {
+            if (!categories.isEmpty())
+                categories.clear();
+            windowLower = -1;
+            windowUpper = -1;
+            return;
+        }
 
-    private final ChangeListener<? super Number> axisUpperBoundlistener = (obs, oVal, nVal) -> {
-            System.err.printf("%s%d UpperAxisBoundariy (%s / %s)\n", " ".repeat(level), level, oVal, nVal);
-            level += 1;
+        int lower = Math.min(lowerBound, upperBound);
+        int upper = upperBound;
 
-            double percent = categoryToPercent(nVal.intValue());
-            for (RangeControlSet item : listControlSets)
-                item.setUpperLimit(percent);              // calls upperRangeLimitListener twice
+        if (windowLower < 0 || lower > windowUpper || upper < windowLower
+                || categories.size() != windowUpper - windowLower + 1) {
+            categories.setAll(categoryList.subList(lower, upper + 1));
+        } else {
+            if (upper < windowUpper)
+                categories.remove(upper - windowLower + 1, categories.size());
+            if (lower > windowLower)
+                categories.remove(0, lower - windowLower);
+            if (lower < windowLower)
+                categories.addAll(0, categoryList.subList(lower, windowLower));
+            if (upper > windowUpper)
+                categories.addAll(categoryList.subList(windowUpper + 1, upper + 1));
+        }
 
-            axis.getCategories().setAll(categoryList.subList(getLowerBound(), getUpperBound() + 1));
-            level -= 1;
-        };
-            
-    private final ChangeListener<? super Number> axisLowerBoundlistener = (obs, oVal, nVal) -> {
-            System.err.printf("%s%d LowerAxisBoundariy (%s / %s)\n", " ".repeat(level), level, oVal, nVal);
-            level += 1;
+        windowLower = lower;
+        windowUpper = upper;
+    }
 
-            double percent = categoryToPercent(nVal.intValue());
+    @Override
+    protected void synchronizeControlSets()
+    {
+        if (categoryList.isEmpty()) {
             for (RangeControlSet item : listControlSets)
-                item.setLowerLimit(percent);              // calls lowerRangeLimitListener twice
+                item.setLimits(0, 100, 100);
+            return;
+        }
+
+        double lower = categoryToPercent(lowerBound);
+        double upper = categoryToPercent(upperBound);
+        double position = calcRangePosition();
+        double rangeLength = calcRangeLength();
 
-            axis.getCategories().setAll(categoryList.subList(getLowerBound(), getUpperBound() + 1));
-            level -= 1;
-        };
+        for (RangeControlSet item : listControlSets) {
+            item.setLowerLimit(lower);
+            item.setUpperLimit(upper);
+            item.setRangeLengthAndPosition(position, rangeLength);
+        }
+    }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
@@ -121,6 +122,26 @@ extends Control
     public final void setMinViewportHeight(double value) { minViewportHeightProperty().set(value); }
     public final DoubleProperty minViewportHeightProperty() { return minViewportHeight; }
 
+    /**
+     * Calculate the data range of the chart on a background thread. This keeps the GUI
+     * responsive if large data sets are swapped in. The range controls are updated as soon as
+     * the calculation has finished.
+     */
+    private final BooleanProperty asyncDataExtraction = new SimpleBooleanProperty(this, "asyncDataExtraction");
+    public final boolean isAsyncDataExtraction() { return asyncDataExtraction.get(); }
+    public final void setAsyncDataExtraction(boolean value) { asyncDataExtraction.set(value); }
+    public final BooleanProperty asyncDataExtractionProperty() { return asyncDataExtraction; }
+
+    /**
+     * Apply the changes of the range controls at most once per pulse. While a ScrollBar is
+     * dragged only its latest value is passed to the axis when the next frame is rendered, so
+     * the chart is laid out once per frame instead of once per mouse event. Turned on by default.
+     */
+    private final BooleanProperty coalesceRangeUpdates = new SimpleBooleanProperty(this, "coalesceRangeUpdates", true);
+    public final boolean isCoalesceRangeUpdates() { return coalesceRangeUpdates.get(); }
+    public final void setCoalesceRangeUpdates(boolean value) { coalesceRangeUpdates.set(value); }
+    public final BooleanProperty coalesceRangeUpdatesProperty() { return coalesceRangeUpdates; }
+
     /***************************************************************************************/
     /*                                                                                     */
     /*                                    Constructors                                     */
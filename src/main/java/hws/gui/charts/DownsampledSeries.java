@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import hws.gui.charts.skins.PulseCoalescer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+/**
+ * A chart series that shows a {@link TimeSeriesSource} at the resolution of the screen. The
+ * full data stays in the source. The series only receives the samples of the visible part of
+ * the {@link LocalDateAxis}, reduced by the {@link Downsampler} to a few points per pixel.
+ * Zoomed out, the samples are taken from the matching level of a {@link TimeSeriesPyramid}
+ * first, so the work doesn't grow with the length of the history.
+ * The selection is recomputed once per pulse whenever the bounds or the width of the axis
+ * change, e.g. if the range controls of a {@link ChartRangePane} are moved. If the
+ * {@link TimeSeriesSource#getVersion() version} of the source has changed meanwhile, the pyramid
+ * and the anchors are rebuilt first.<p>
+ *
+ * Besides the visible samples the series always contains the first and the last sample and
+ * the samples with the smallest and the largest value. They lie outside the plot area and are
+ * clipped away, but they keep the data range seen by the ChartRangePane the same as the one of
+ * the full data. A refresh only removes the items which left the selection and adds the ones
+ * which entered it, so the anchors stay in the series and don't force the ChartRangePane to
+ * rebuild the data range.<p>
+ *
+ * The series is meant for a LineChart with createSymbols switched off.
+ *
+ * @author grimm
+ */
+public class DownsampledSeries
+{
+    public enum Method { LTTB, MIN_MAX }
+
+    private static final int DEFAULT_WIDTH = 1000;    // pixels, until the axis is laid out
+
+    private final XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+    private final LocalDateAxis axis;
+    private final PulseCoalescer coalescer = new PulseCoalescer();
+    private TimeSeriesSource source;
+    private TimeSeriesPyramid pyramid;
+    private int sourceVersion;
+    private Method method = Method.MIN_MAX;
+
+    private int[] selection = new int[0];
+    private int[] anchors = new int[0];
+
+    // indices of the samples in the series and of the ones for the next refresh
+    private int[] shown = new int[0];
+    private int shownCount = -1;
+    private int[] next = new int[0];
+
+    private final InvalidationListener axisListener = obs -> coalescer.submit(this, this::refresh);
+
+    public DownsampledSeries(LocalDateAxis axis, TimeSeriesSource source, String name)
+    {
+        this.axis = axis;
+        series.setName(name);
+
+        axis.lowerBoundProperty().addListener(axisListener);
+        axis.upperBoundProperty().addListener(axisListener);
+        axis.widthProperty().addListener(axisListener);
+
+        setSource(source);
+    }
+
+    /**
+     * @return  the series to add to the chart
+     */
+    public XYChart.Series<LocalDate,Number> getSeries()
+    {
+        return series;
+    }
+
+    public TimeSeriesSource getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Replace the data of the series.
+     *
+     * @param source  the full time series
+     */
+    public final void setSource(TimeSeriesSource source)
+    {
+        this.source = source;
+        rebuild();
+        refresh();
+    }
+
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    public void setMethod(Method method)
+    {
+        this.method = method;
+        refresh();
+    }
+
+    /**
+     * Stop following the axis.
+     */
+    public void detach()
+    {
+        coalescer.cancel();
+        axis.lowerBoundProperty().removeListener(axisListener);
+        axis.upperBoundProperty().removeListener(axisListener);
+        axis.widthProperty().removeListener(axisListener);
+    }
+
+    /**
+     * Select the samples for the current bounds and width of the axis and pass them to the
+     * series. This is done automatically on the next pulse after the axis has changed. Call it
+     * after the source has changed to show the new samples right away.
+     */
+    public void refresh()
+    {
+        if (source.getVersion() != sourceVersion)
+            rebuild();
+
+        int size = source.size();
+        int count = 0;
+
+        if (size > 0 && axis.getLowerBound() != null && axis.getUpperBound() != null) {
+            long lower = axis.getLowerBound().toEpochDay();
+            long upper = axis.getUpperBound().toEpochDay();
+            int width = axis.getWidth() > 0 ? (int) Math.ceil(axis.getWidth()) : DEFAULT_WIDTH;
+            TimeSeriesPyramid.Level level = pyramid.selectLevel(upper - lower + 1, width);
+
+            // visible samples plus one on each side, so the line leaves the plot area correctly
+            int from = Math.max(0, level.indexOf(lower) - 1);
+            int to = Math.min(level.size(), level.indexOf(upper + 1) + 1);
+
+            if (from < to) {
+                if (method == Method.LTTB) {
+                    selection = ensureCapacity(selection, Math.max(3, width));
+                    count = Downsampler.lttb(level, from, to, Math.max(3, width), selection);
+                } else {
+                    selection = ensureCapacity(selection, 2 * width + 2);
+                    count = Downsampler.minMax(level, from, to, width, selection);
+                }
+            }
+
+            for (int n = 0; n < count; n++)
+                selection[n] = level.baseIndex(selection[n]);
+        }
+
+        updateData(mergeAnchors(count));
+    }
+
+    // merge the selected samples with the anchors into next, both are sorted
+    private int mergeAnchors(int count)
+    {
+        next = ensureCapacity(next, count + anchors.length);
+        int n = 0;
+        int a = 0;
+        int s = 0;
+
+        while (a < anchors.length || s < count) {
+            int idx;
+            if (s >= count || (a < anchors.length && anchors[a] < selection[s]))
+                idx = anchors[a++];
+            else
+                idx = selection[s++];
+
+            if (n == 0 || next[n - 1] != idx)
+                next[n++] = idx;
+        }
+        return n;
+    }
+
+    // apply the difference between the shown and the next samples to the series
+    private void updateData(int count)
+    {
+        ObservableList<XYChart.Data<LocalDate,Number>> data = series.getData();
+
+        if (data.size() != shownCount) {
+            data.setAll(createData(next, 0, count));
+        } else {
+            int i = 0;
+            int j = 0;
+            int position = 0;
+
+            while (i < shownCount || j < count) {
+                if (i < shownCount && j < count && shown[i] == next[j]) {
+                    i++;
+                    j++;
+                    position++;
+
+                } else if (j >= count || (i < shownCount && shown[i] < next[j])) {
+                    int start = i;
+                    while (i < shownCount && (j >= count || shown[i] < next[j]))
+                        i++;
+                    data.remove(position, position + i - start);
+
+                } else {
+                    int start = j;
+                    while (j < count && (i >= shownCount || next[j] < shown[i]))
+                        j++;
+                    data.addAll(position, createData(next, start, j));
+                    position += j - start;
+                }
+            }
+        }
+
+        int[] previous = shown;
+        shown = next;
+        shownCount = count;
+        next = previous;
+    }
+
+    private List<XYChart.Data<LocalDate,Number>> createData(int[] indices, int from, int to)
+    {
+        List<XYChart.Data<LocalDate,Number>> list = new ArrayList<>(to - from);
+        for (int n = from; n < to; n++) {
+            int idx = indices[n];
+            list.add(new XYChart.Data<>(LocalDate.ofEpochDay(source.getEpochDay(idx)), source.getValue(idx)));
+        }
+        return list;
+    }
+
+    // the samples of the source have changed, the indices of the last refresh are invalid
+    private void rebuild()
+    {
+        sourceVersion = source.getVersion();
+        pyramid = new TimeSeriesPyramid(source);
+        findAnchors();
+        shownCount = -1;        // replace all items
+    }
+
+    private void findAnchors()
+    {
+        int size = source.size();
+        if (size == 0) {
+            anchors = new int[0];
+            return;
+        }
+
+        int minIndex = 0;
+        int maxIndex = 0;
+        for (int i = 1; i < size; i++) {
+            double value = source.getValue(i);
+            if (value < source.getValue(minIndex)) minIndex = i;
+            if (value > source.getValue(maxIndex)) maxIndex = i;
+        }
+
+        anchors = new int[] { 0, minIndex, maxIndex, size - 1 };
+        Arrays.sort(anchors);
+    }
+
+    private static int[] ensureCapacity(int[] array, int length)
+    {
+        return array.length >= length ? array : new int[length];
+    }
+}
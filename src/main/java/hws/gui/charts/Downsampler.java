@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.Objects;
+
+/**
+ * Reduces a part of a {@link TimeSeriesSource} to the samples which are worth drawing. Both
+ * methods write the indices of the selected samples into an array supplied by the caller and
+ * return their number. The indices are in ascending order. Nothing is allocated, so the same
+ * output array could be used for every layout pass.
+ * <ul>
+ * <li>{@link #lttb(TimeSeriesSource, int, int, int, int[]) Largest-Triangle-Three-Buckets}
+ *     keeps the visual shape of the curve with the given number of samples.
+ * <li>{@link #minMax(TimeSeriesSource, int, int, int, int[]) Min/Max} keeps the smallest and
+ *     the largest sample per bucket, so no peak gets lost.
+ * </ul>
+ *
+ * @author grimm
+ */
+public final class Downsampler
+{
+    private Downsampler() { }
+
+    /**
+     * Select samples with the Largest-Triangle-Three-Buckets algorithm. The first and the last
+     * sample are always kept. The samples in between are split into threshold - 2 buckets. Of
+     * each bucket the sample is kept which forms the largest triangle with the sample kept
+     * from the previous bucket and the average of the next bucket.
+     *
+     * @param source     the time series
+     * @param from       index of the first sample (inclusive)
+     * @param to         index of the last sample (exclusive)
+     * @param threshold  maximal number of samples to keep
+     * @param out        receives the indices of the selected samples, at least threshold long
+     * @return           number of selected samples
+     * @throws IllegalArgumentException  if threshold is less than 3
+     */
+    public static int lttb(TimeSeriesSource source, int from, int to, int threshold, int[] out)
+    {
+        Objects.checkFromToIndex(from, to, source.size());
+        int count = to - from;
+
+        if (threshold < 3)
+            throw new IllegalArgumentException("Threshold must be at least 3: " + threshold);
+
+        if (threshold >= count)
+            return copyAll(from, to, count, out);
+
+        double bucketSize = (double)(count - 2) / (threshold - 2);
+        int selected = from;
+        int n = 0;
+
+        out[n++] = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = from + 1 + (int)(bucket * bucketSize);
+            int bucketEnd   = from + 1 + (int)((bucket + 1) * bucketSize);
+
+            // average of the next bucket, the last sample for the last bucket
+            int nextStart = bucketEnd;
+            int nextEnd   = Math.min(from + 1 + (int)((bucket + 2) * bucketSize), to - 1);
+            if (nextStart >= nextEnd) {
+                nextStart = to - 1;
+                nextEnd   = to;
+            }
+
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += source.getEpochDay(i);
+                avgY += source.getValue(i);
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            double ax = source.getEpochDay(selected);
+            double ay = source.getValue(selected);
+            double maxArea = -1;
+            int maxIndex = bucketStart;
+
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((ax - avgX) * (source.getValue(i) - ay)
+                                     - (ax - source.getEpochDay(i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            out[n++] = maxIndex;
+            selected = maxIndex;
+        }
+
+        out[n++] = to - 1;
+        return n;
+    }
+
+    /**
+     * Split the samples into buckets of the same time span and keep the smallest and the
+     * largest sample of each bucket. The first and the last sample are always kept.
+     *
+     * @param source     the time series
+     * @param from       index of the first sample (inclusive)
+     * @param to         index of the last sample (exclusive)
+     * @param buckets    number of buckets, usually the width of the plot in pixels
+     * @param out        receives the indices of the selected samples, at least
+     *                   2 * buckets + 2 long
+     * @return           number of selected samples
+     */
+    public static int minMax(TimeSeriesSource source, int from, int to, int buckets, int[] out)
+    {
+        Objects.checkFromToIndex(from, to, source.size());
+        int count = to - from;
+
+        if (buckets < 1 || count <= 2 * buckets + 2)
+            return copyAll(from, to, count, out);
+
+        long firstDay = source.getEpochDay(from);
+        long span = source.getEpochDay(to - 1) - firstDay + 1;
+        int n = 0;
+
+        out[n++] = from;
+
+        int i = from + 1;
+        while (i < to - 1) {
+            long bucket = (source.getEpochDay(i) - firstDay) * buckets / span;
+            int minIndex = i;
+            int maxIndex = i;
+
+            for (i++; i < to - 1 && (source.getEpochDay(i) - firstDay) * buckets / span == bucket; i++) {
+                double value = source.getValue(i);
+                if (value < source.getValue(minIndex)) minIndex = i;
+                if (value > source.getValue(maxIndex)) maxIndex = i;
+            }
+
+            out[n++] = Math.min(minIndex, maxIndex);
+            if (minIndex != maxIndex)
+                out[n++] = Math.max(minIndex, maxIndex);
+        }
+
+        out[n++] = to - 1;
+        return n;
+    }
+
+    private static int copyAll(int from, int to, int count, int[] out)
+    {
+        for (int n = 0; n < count; n++)
+            out[n] = from + n;
+        return count;
+    }
+}
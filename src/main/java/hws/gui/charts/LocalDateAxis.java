@@ -24,20 +24,16 @@ import static java.time.temporal.ChronoUnit.DAYS;
 import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleObjectProperty;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
 import javafx.collections.ListChangeListener;
-import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.chart.Axis;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 import javafx.scene.text.Text;
 
 /**
@@ -45,31 +41,36 @@ import javafx.scene.text.Text;
  * @author grimm
  */
 public class LocalDateAxis
-extends Axis<LocalDate>
+extends TemporalAxis<LocalDate>
 {
     private final static int AVERAGE_TICK_GAP = 70;
-
-    private final Path minorTickPath  = new Path();
+    private final static int PARALLEL_SCAN_THRESHOLD = 100_000;
+    private final static int LABEL_CACHE_SIZE = 1024;
 
     private LocalDate minRangeDate;
     private LocalDate maxRangeDate;
+    private LocalDate hintMinDate;
+    private LocalDate hintMaxDate;
     private AxisTick tickInterval;
 
-    List<LocalDate> minorTickMarkValues = new ArrayList<>();
-    private boolean minorTickMarksDirty = true;
+    // tick value -> label node, see findTextNode()
+    private final Map<LocalDate,Text> tickLabelNodes = new HashMap<>();
+    // label nodes added by Axis since the last update of the tick marks
+    private final List<Text> addedLabelNodes = new ArrayList<>();
 
     public LocalDateAxis()
     {
         tickInterval = AxisTick.MONTHS;
-        minorTickPath.getStyleClass().add("axis-minor-tick-mark");
-        getChildren().add(minorTickPath);
-        setTickMarkVisible(false);  // hide major Ticks
-        
-        this.getChildrenUnmodifiable().addListener((ListChangeListener<Node>) c -> {
+
+        getChildrenUnmodifiable().addListener((ListChangeListener<Node>) c -> {
                 while (c.next()) {
-                    for (Node mark : c.getAddedSubList()) {
-                        if (mark instanceof Text)
-                            mark.getStyleClass().add("tick-label");
+                    for (Node node : c.getRemoved()) {
+                        if (node instanceof Text textNode)
+                            addedLabelNodes.remove(textNode);
+                    }
+                    for (Node node : c.getAddedSubList()) {
+                        if (node instanceof Text textNode)
+                            addedLabelNodes.add(textNode);
                     }
                 }
             });
@@ -79,182 +80,94 @@ extends Axis<LocalDate>
     {
         this();
         setAutoRanging(false);
-        lowerBound.set(lBound);
-        upperBound.set(uBound);
-    }
-
-    /**
-     * Unmodifiable observable list of minor tick marks, each tick mark directly represents a
-     * tick mark on this axis. This is updated whenever the displayed tickmarks changes.
-     *
-     * This method allows the Chart to draw the grid also for minor Tickmarks.
-     * 
-     * @return Unmodifiable observable list of minor TickMarks on this axis
-     */
-    public List<LocalDate> getMinorTickMarks()
-    {
-        return Collections.unmodifiableList(minorTickMarkValues);
-    }
-
-    @Override
-    public void invalidateRange(List<LocalDate> list)
-    {
-        super.invalidateRange(list);
-
-        Collections.sort(list);
-        if (list.isEmpty()) {
-            minRangeDate = maxRangeDate = LocalDate.now();
-        } else if (list.size() == 1) {
-            minRangeDate = maxRangeDate = list.get(0);
-        } else {
-            minRangeDate = list.get(0);
-            maxRangeDate = list.get(list.size() - 1);
-        }
+        setLowerBound(lBound);
+        setUpperBound(uBound);
     }
 
-    private ObjectProperty<LocalDate> lowerBound =
-            new SimpleObjectProperty<LocalDate>(LocalDateAxis.this, "lowerBound") {
-                @Override
-                protected void invalidated() {
-                    if (!isAutoRanging()) {
-                        invalidateRange();
-                        requestAxisLayout();
-                    }
-                }
-            };
-    public final LocalDate getLowerBound() { return lowerBound.get(); }
-    public final void setLowerBound(LocalDate date) {lowerBound.set(date); }
-    public final ObjectProperty<LocalDate> lowerBoundProperty() { return lowerBound; }
-
-    private ObjectProperty<LocalDate> upperBound =
-            new SimpleObjectProperty<LocalDate>(LocalDateAxis.this, "upperBound") {
-                @Override
-                protected void invalidated() {
-                    if (!isAutoRanging()) {
-                        invalidateRange();
-                        requestAxisLayout();
-                    }
-                }
-            };
-    public final LocalDate getUpperBound() { return upperBound.get(); }
-    public final void setUpperBound(LocalDate date) {upperBound.set(date); }
-    public final ObjectProperty<LocalDate> upperBoundProperty() { return upperBound; }
-
-    private DoubleProperty minorTickLength =
-            new SimpleDoubleProperty(LocalDateAxis.this, "minorTickLength", 8) {
-                @Override
-                protected void invalidated() {
-                    requestAxisLayout();
-                }
-    };
-    public final double getMinorTickLength() { return minorTickLength.get(); }
-    public final void setMinorTickLength(double value) { minorTickLength.set(value); }
-    public final DoubleProperty minorTickLengthProperty() { return minorTickLength; }
-
     /** @inheritDoc */
     @Override
-    protected Object autoRange(double length)
+    protected long toEpochValue(LocalDate value)
     {
-        if (isAutoRanging())
-            return new Object[]{minRangeDate, maxRangeDate};
-
-        else if (getLowerBound() == null || getUpperBound() == null) 
-            throw new IllegalArgumentException("If autoRanging is false, a lower and upper bound must be set.");
-
-        return getRange();
+        return value.toEpochDay();
     }
 
     /** @inheritDoc */
     @Override
-    protected void setRange(Object range, boolean animate)
+    protected LocalDate ofEpochValue(long epochValue)
     {
-        Object[] newRange = (Object[]) range;
-        lowerBound.set((LocalDate) newRange[0]);
-        upperBound.set((LocalDate) newRange[1]);
+        return LocalDate.ofEpochDay(epochValue);
     }
 
-    /** @inheritDoc */
-    @Override
-    protected Object getRange()
+    /**
+     * Tell the axis the earliest and the latest date of the chart data in advance. A data
+     * source that knows its bounds anyway (e.g. a sorted time series) saves the axis from
+     * scanning all data values on each auto-ranging pass. The hint stays active until it is
+     * removed again by passing <code>null</code>, so the caller is responsible to keep it up to
+     * date.
+     *
+     * @param earliest   earliest date of the data or null
+     * @param latest     latest date of the data or null
+     */
+    public void setDataRangeHint(LocalDate earliest, LocalDate latest)
     {
-        return new Object[]{lowerBound.get(), upperBound.get()};
-    }
+        if (earliest != null && latest != null && earliest.isAfter(latest))
+            throw new IllegalArgumentException("The earliest date must not be after the latest date.");
 
-    /** @inheritDoc */
-    @Override
-    public double getZeroPosition()
-    {
-        return 0d;
+        hintMinDate = earliest;
+        hintMaxDate = latest;
     }
 
-    /** @inheritDoc */
     @Override
-    public double getDisplayPosition(LocalDate value)
+    public void invalidateRange(List<LocalDate> list)
     {
-        double visibleDays = DAYS.between(lowerBound.get(), upperBound.get());
-        double valueDays = DAYS.between(lowerBound.get(), value);
-        double relPosition = valueDays / visibleDays;
+        super.invalidateRange(list);
 
-        if(getSide().isVertical()) {
-            double heightInPixel = getHeight() - getZeroPosition();
-            return heightInPixel - relPosition * heightInPixel + getZeroPosition();
-            
-        } else {
-            double widthInPixel = getWidth() - getZeroPosition();
-            return relPosition * widthInPixel + getZeroPosition();
-        }
-    }
+        if (hintMinDate != null && hintMaxDate != null) {
+            minRangeDate = hintMinDate;
+            maxRangeDate = hintMaxDate;
 
-    /** @inheritDoc */
-    @Override
-    public LocalDate getValueForDisplay(double displayPosition)
-    {
-        double visibleDays = DAYS.between(lowerBound.get(), upperBound.get());
-        double posInPixel = displayPosition - getZeroPosition();
+        } else if (list.isEmpty()) {
+            minRangeDate = maxRangeDate = LocalDate.now();
+
+        } else if (list.size() >= PARALLEL_SCAN_THRESHOLD) {
+            LongSummaryStatistics stats = list.parallelStream()
+                                              .mapToLong(LocalDate::toEpochDay)
+                                              .summaryStatistics();
+            minRangeDate = LocalDate.ofEpochDay(stats.getMin());
+            maxRangeDate = LocalDate.ofEpochDay(stats.getMax());
 
-        double relPosition;
-        if(getSide().isVertical()) {
-            double heightInPixel = getHeight() - getZeroPosition();
-            relPosition = (heightInPixel - posInPixel) / heightInPixel;
-            
         } else {
-            double widthInPixel = getWidth() - getZeroPosition();
-            relPosition = posInPixel / widthInPixel;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (LocalDate date : list) {
+                long epochDay = date.toEpochDay();
+                if (epochDay < min) min = epochDay;
+                if (epochDay > max) max = epochDay;
+            }
+            minRangeDate = LocalDate.ofEpochDay(min);
+            maxRangeDate = LocalDate.ofEpochDay(max);
         }
-
-        return lowerBound.get().plusDays((long)(visibleDays * relPosition));
     }
 
     /** @inheritDoc */
     @Override
-    public boolean isValueOnAxis(LocalDate value)
+    protected Object autoRange(double length)
     {
-        LocalDate earliestDate = lowerBound.get();
-        if (earliestDate.isAfter(value))
-            return false;
-        
-        LocalDate latestDate = upperBound.get();
-        if (latestDate.isBefore(value))
-            return false;
-        
-        return true;
-    }
+        if (isAutoRanging())
+            return new Object[]{minRangeDate, maxRangeDate};
 
-    /** @inheritDoc */
-    @Override
-    public double toNumericValue(LocalDate value)
-    {    
-        return value.toEpochDay();
-    }
+        else if (getLowerBound() == null || getUpperBound() == null) 
+            throw new IllegalArgumentException("If autoRanging is false, a lower and upper bound must be set.");
 
-    /** @inheritDoc */
-    @Override
-    public LocalDate toRealValue(double value)
-    {
-        return LocalDate.ofEpochDay((long) value);
+        return getRange();
     }
 
-    /** @inheritDoc */
+    /**
+     * Calculate the tick values for the given range. The list is built from scratch on each
+     * call: Axis.layoutChildren() replaces all TickMarks and their label Text nodes with new
+     * ones anyway, so keeping the previous values wouldn't save any node. The label strings
+     * come from the cache of {@link AxisTick}.
+     */
     @Override
     protected List<LocalDate> calculateTickValues(double length, Object range)
     {
@@ -278,6 +191,8 @@ extends Axis<LocalDate>
         return dateList;
     }
 
+    /** @inheritDoc */
+    @Override
     protected List<LocalDate> calculateMinorTickValues()
     {
         List<LocalDate> tickDateList = new ArrayList<>();
@@ -300,9 +215,7 @@ extends Axis<LocalDate>
     protected void tickMarksUpdated()
     {
         super.tickMarksUpdated();
-
-        minorTickMarkValues = calculateMinorTickValues();
-        minorTickMarksDirty = true;
+        updateTickLabelNodes();
     }
 
     /** @inheritDoc */
@@ -314,86 +227,13 @@ extends Axis<LocalDate>
     
     /** @inheritDoc */
     @Override
-    protected void layoutChildren()
-    {
-        super.layoutChildren();
-
-        final Side side = this.getSide();
-        final double length = side.isVertical() ? getHeight() :getWidth() ;
-        if (minorTickMarksDirty) {
-            minorTickMarksDirty = false;
-            updateMinorTickPath(side, length);
-        }
-    }
-    
-    private void updateMinorTickPath(Side side, double length)
+    protected boolean hasMinorTickMarks()
     {
-        if (tickInterval == null)
-            throw new IllegalArgumentException("Chart side for Axis not defined!");
-                    
-        if (tickInterval.equals(AxisTick.DAYS))
-            return;
-        
-        double neededLength = getTickMarks().size()*2;
-
-        // Update minor tickmarks
-        minorTickPath.getElements().clear();
-
-        // Don't draw minor tick marks if there isn't enough space for them!
-        double tickLength = Math.max(0, getMinorTickLength());
-        if (tickLength > 0 && length > neededLength) {
-            if (Side.LEFT.equals(side)) {
-                // snap minorTickPath to pixels
-                minorTickPath.setLayoutX(-0.5);
-                minorTickPath.setLayoutY(0.5);
-                for (LocalDate value : minorTickMarkValues) {
-                    double y = getDisplayPosition(value);
-                    if (y >= 0 && y <= length) {
-                        minorTickPath.getElements().addAll(
-                                new MoveTo(getWidth() - tickLength, y),
-                                new LineTo(getWidth() - 1, y));
-                    }
-                }
-            } else if (Side.RIGHT.equals(side)) {
-                // snap minorTickPath to pixels
-                minorTickPath.setLayoutX(0.5);
-                minorTickPath.setLayoutY(0.5);
-                for (LocalDate value : minorTickMarkValues) {
-                    double y = getDisplayPosition(value);
-                    if (y >= 0 && y <= length) {
-                        minorTickPath.getElements().addAll(
-                                new MoveTo(1, y),
-                                new LineTo(tickLength, y));
-                    }
-                }
-            } else if (Side.TOP.equals(side)) {
-                // snap minorTickPath to pixels
-                minorTickPath.setLayoutX(0.5);
-                minorTickPath.setLayoutY(-0.5);
-                for (LocalDate value : minorTickMarkValues) {
-                    double x = getDisplayPosition(value);
-                    if (x >= 0 && x <= length) {
-                        minorTickPath.getElements().addAll(
-                                new MoveTo(x, getHeight() - 1),
-                                new LineTo(x, getHeight() - tickLength));
-                    }
-                }
-            } else { // BOTTOM
-                // snap minorTickPath to pixels
-                minorTickPath.setLayoutX(0.5);
-                minorTickPath.setLayoutY(0.5);
-                for (LocalDate value : minorTickMarkValues) {
-                    double x = getDisplayPosition(value);
-                    if (x >= 0 && x <= length) {
-                        minorTickPath.getElements().addAll(
-                                new MoveTo(x, 1.0F),
-                                new LineTo(x, tickLength));
-                    }
-                }
-            }
-        }
+        return tickInterval != AxisTick.DAYS;
     }
 
+    private record LabelKey(long epochDay, Locale locale) { }
+
     protected enum AxisTick
     {
         DAYS(Period.ofDays(1), "dd MM yy"),
@@ -405,63 +245,118 @@ extends Axis<LocalDate>
         SEMICENTURY(Period.ofYears(50), "yyyy"),
         CENTURY(Period.ofYears(100), "yyyy");
         
+        // values() clones the array on each call
+        private static final AxisTick[] VALUES = values();
+
         private Period period;
         private String format;
+        private final long lengthInDays;
+
+        // access ordered, the least recently used label is dropped first
+        private final LinkedHashMap<LabelKey,String> labelCache = new LinkedHashMap<>(64, 0.75f, true);
+        private Locale formatterLocale;
+        private TemporalField weekOfYear;
+        private DateTimeFormatter[] formatters;
         
         private AxisTick(Period p, String f)
         {
             period = p;
             format = f;
+            lengthInDays = p.getYears() * 365L + p.getMonths() * 30L + p.getDays();
         }
         
+        /**
+         * Find the interval whose number of ticks within the given span comes closest to the
+         * requested number of ticks. The length of each interval in days is derived from its
+         * Period (a month counts 30 days, a year 365 days), so new intervals don't need any
+         * changes here.
+         *
+         * @param spanInDays   length of the axis range
+         * @param cntTicks     number of ticks that fit on the axis
+         * @return             best matching interval
+         */
         public static AxisTick findInterval(long spanInDays, int cntTicks)
         {
-            float[] distances = new float[AxisTick.values().length];
-            
-            distances[0] = (spanInDays     - cntTicks) * (spanInDays     - cntTicks);
-            distances[1] = (spanInDays/7   - cntTicks) * (spanInDays/7   - cntTicks);
-            distances[2] = (spanInDays/30  - cntTicks) * (spanInDays/30  - cntTicks);
-            distances[3] = (spanInDays/90  - cntTicks) * (spanInDays/90  - cntTicks);
-            distances[4] = (spanInDays/365 - cntTicks) * (spanInDays/365 - cntTicks);
-            distances[5] = (spanInDays/3650 - cntTicks) * (spanInDays/3650 - cntTicks);
-            distances[6] = (spanInDays/18250 - cntTicks) * (spanInDays/18250 - cntTicks);
-            distances[7] = (spanInDays/36500 - cntTicks) * (spanInDays/36500 - cntTicks);
-
-            int smalestDistanceIdx = 0;
-            float temp = distances[0];
-            for (int n=0; n< AxisTick.values().length; n++)
-                if (distances[n] < temp) {
-                    temp = distances[n];
-                    smalestDistanceIdx = n;
-                }
+            AxisTick bestInterval = VALUES[0];
+            long smallestDistance = Long.MAX_VALUE;
 
-            return AxisTick.valueOf(smalestDistanceIdx);
+            for (AxisTick interval : VALUES) {
+                long delta = spanInDays / interval.lengthInDays - cntTicks;
+                long distance = delta * delta;
+                if (distance < smallestDistance) {
+                    smallestDistance = distance;
+                    bestInterval = interval;
+                }
+            }
+            return bestInterval;
         }
         
+        /**
+         * @return  approximate length of the interval in days
+         */
+        long getLengthInDays()
+        {
+            return lengthInDays;
+        }
+
         public static AxisTick valueOf(int idx)
         {
-            if (idx < AxisTick.values().length)
-                return AxisTick.values()[idx];
+            if (idx >= 0 && idx < VALUES.length)
+                return VALUES[idx];
             
             return AxisTick.DAYS;
         }
         
+        /**
+         * Return the label of a tick mark. Labels are cached per epoch day and locale and the
+         * DateTimeFormatters are created only once, because this method is called for each
+         * tick mark on every layout pass.
+         *
+         * @param date   value of the tick mark
+         * @return       label text
+         */
         public String getLabel(LocalDate date)
         {
-            String dateFormat = format;
-            
-            switch(this) {
-                case WEEKS -> {
-                    TemporalField woy = WeekFields.of(Locale.getDefault()).weekOfWeekBasedYear(); 
-                    dateFormat = String.format(format, date.get(woy));
-                }
-                case QUARTERS -> {
-                    int quarter = (date.getMonthValue()-1) / 3 + 1;
-                    dateFormat = String.format(format, quarter);
+            Locale locale = Locale.getDefault();
+
+            synchronized (labelCache) {
+                LabelKey key = new LabelKey(date.toEpochDay(), locale);
+                String label = labelCache.get(key);
+
+                if (label == null) {
+                    label = date.format(getFormatter(date, locale));
+                    labelCache.put(key, label);
+
+                    if (labelCache.size() > LABEL_CACHE_SIZE) {
+                        Iterator<LabelKey> eldest = labelCache.keySet().iterator();
+                        eldest.next();
+                        eldest.remove();
+                    }
                 }
+                return label;
             }
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormat);
-            return date.format(formatter);
+        }
+
+        private DateTimeFormatter getFormatter(LocalDate date, Locale locale)
+        {
+            if (!locale.equals(formatterLocale)) {
+                formatterLocale = locale;
+                weekOfYear = WeekFields.of(locale).weekOfWeekBasedYear();
+                formatters = new DateTimeFormatter[this == WEEKS ? 54 : 5];
+            }
+
+            // WEEKS and QUARTERS have the number of the week or quarter in their pattern
+            int idx = 0;
+            switch(this) {
+                case WEEKS -> idx = date.get(weekOfYear);
+                case QUARTERS -> idx = (date.getMonthValue()-1) / 3 + 1;
+            }
+
+            if (formatters[idx] == null) {
+                String dateFormat = (idx > 0) ? String.format(format, idx) : format;
+                formatters[idx] = DateTimeFormatter.ofPattern(dateFormat, locale);
+            }
+            return formatters[idx];
         }
         
         public LocalDate normalizeToBegin(LocalDate date)
@@ -578,16 +473,39 @@ extends Axis<LocalDate>
         }
     }
 
-    private Text findTextNode(LocalDate value)
+    /**
+     * Return the label node of a tick mark. The nodes are looked up in a map that is refreshed
+     * each time the tick marks are updated.<p>
+     *
+     * The map pairs the tick marks with the label nodes Axis added for them, not with any
+     * child of the same text: while the axis is animated, the faded out labels of the previous
+     * ticks are still children for a while. This relies on Axis adding one new label node per
+     * tick mark in the order of {@link #getTickMarks()}. A tick whose node doesn't carry its
+     * label is left out, so the lookup returns null rather than a wrong node.
+     *
+     * @param value   value of a tick mark
+     * @return        label node, or null if the value is not a tick mark of this axis
+     */
+    protected Text findTextNode(LocalDate value)
     {
-        String label = getTickMarkLabel(value);
-        
-        for (Node node : getChildrenUnmodifiable()) {
-            if (node instanceof Text textNode) {
-                if (textNode.getText().equals(label))
-                    return textNode;
+        return tickLabelNodes.get(value);
+    }
+
+    private void updateTickLabelNodes()
+    {
+        tickLabelNodes.clear();
+
+        // the label nodes of the current tick marks are the last ones added
+        List<Axis.TickMark<LocalDate>> ticks = getTickMarks();
+        int offset = addedLabelNodes.size() - ticks.size();
+        if (offset >= 0) {
+            for (int n = 0; n < ticks.size(); n++) {
+                Axis.TickMark<LocalDate> tick = ticks.get(n);
+                Text textNode = addedLabelNodes.get(offset + n);
+                if (textNode.getText().equals(tick.getLabel()))
+                    tickLabelNodes.put(tick.getValue(), textNode);
             }
         }
-        return null;
+        addedLabelNodes.clear();
     }
 }
@@ -16,223 +16,118 @@
  */
 package hws.gui.charts;
 
-import hws.gui.charts.skins.RangeControlSet;
 import java.time.LocalDate;
-import static java.time.temporal.ChronoUnit.DAYS;
-import java.util.List;
-import javafx.beans.value.ChangeListener;
+import java.util.Objects;
 
 /**
+ * RangeConverter for a {@link LocalDateAxis}. Internally all dates are handled as epoch days
+ * (see {@link LocalDate#toEpochDay()}), which is the same numeric representation the axis uses
+ * in {@link LocalDateAxis#toNumericValue(java.time.LocalDate)}. So range calculations are
+ * simple primitive arithmetic and large data sets could be passed as arrays of epoch days.
  *
  * @author grimm
  */
 public class LocalDateRangeConverter
-extends RangeConverter<LocalDate>
+extends TemporalRangeConverter<LocalDate>
 {
-    private LocalDateAxis axis;
-    private LocalDate minRange;
-    private LocalDate maxRange;
-
     public LocalDateRangeConverter(LocalDateAxis axis)
     {
-        super(axis);
-        this.axis = axis;
-        
-        if (axis.getLowerBound() != null && axis.getUpperBound() != null) {
-            minRange = axis.getLowerBound();
-            maxRange = axis.getUpperBound();
-        } else {
-            LocalDate now = LocalDate.now();
-            minRange = LocalDate.of(now.getYear(), 1, 1);   // Default:  1. 1.<current year>
-            maxRange = LocalDate.of(now.getYear(), 12, 31); //          31.12.<current year>
-        }
-        
-        if (axis.isAutoRanging()) {
-            axis.setAutoRanging(false);
-            axis.setLowerBound(minRange);
-            axis.setUpperBound(maxRange);
-        }
-        
-        axis.upperBoundProperty().addListener(axisUpperBoundlistener);
-        axis.lowerBoundProperty().addListener(axisLowerBoundlistener);
-    }
-     
-    @Override
-    public void updateData(List<LocalDate> list)
-    {
-        if (list.isEmpty()) {
-            minRange = axis.getLowerBound();   // Default range:  1. 1.<current year>
-            maxRange = axis.getUpperBound();   //                31.12.<current year>
-            
-        } else {
-            minRange = LocalDate.MAX;
-            maxRange = LocalDate.MIN;
+        super(axis, firstDayOfYear(), lastDayOfYear());   // Default:  1. 1.<current year>
+    }                                                     //          31.12.<current year>
 
-            for (LocalDate date : list) {
-                if (date.isBefore(minRange))
-                    minRange = date;
-                if (date.isAfter(maxRange))
-                    maxRange = date;
-            }
-        }
-        
-        if (axis.getUpperBound().isAfter(minRange) && axis.getLowerBound().isBefore(maxRange)) {
-            if (axis.getLowerBound().isBefore(minRange))  minRange = axis.getLowerBound();
-            if (axis.getUpperBound().isAfter(maxRange))   maxRange = axis.getUpperBound();
-        }
+    private static LocalDate firstDayOfYear()
+    {
+        return LocalDate.of(LocalDate.now().getYear(), 1, 1);
+    }
 
-        axis.setLowerBound(minRange);
-        axis.setUpperBound(maxRange);
+    private static LocalDate lastDayOfYear()
+    {
+        return LocalDate.of(LocalDate.now().getYear(), 12, 31);
     }
 
     /**
-     * Establish the binding of the converter.It links the input to the output and vice versa.
-     * 
-     * @param rangeCTRL  RangeControlSet instance with the controls for one axis
+     * Inform the RangeConverter about the data values of the maintained axis given as epoch
+     * days. The loop over the primitive array doesn't touch any LocalDate object.
+     *
+     * @param epochDays  array of dates as epoch days
      */
-    @Override
-    public void link(RangeControlSet rangeCTRL)
+    public void updateData(long[] epochDays)
     {
-        registerControlSet(rangeCTRL);
-
-        // set initial values
-        if (axis.getUpperBound() != null)
-            rangeCTRL.setUpperLimit(localDateToPercent(axis.getUpperBound()));
-        
-        if (axis.getLowerBound() != null)
-            rangeCTRL.setLowerLimit(localDateToPercent(axis.getLowerBound()));
-            
-        // set initial range length and position
-        double rangeLength = calcRangeLength(axis);
-        rangeCTRL.setRangeLengthAndPosition(rangeLength);
-        
-        ChangeListener<Number> upperRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
-
-                System.err.printf("%s%d UpperRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
-
-                LocalDate date = percentToLocalDate(nVal.doubleValue());
-                axis.setUpperBound(date);                          // calls axisUpperBoundListener
-
-                double rangeLen = calcRangeLength(axis);
-                rangeCTRL.setRangeLengthAndPosition(rangeLen);     // calls rangePositionListener
-
-                level -= 1;
-            };
-
-        ChangeListener<Number> lowerRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
-
-                System.err.printf("%s%d LowerRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
-
-                LocalDate date = percentToLocalDate(nVal.doubleValue());
-                axis.setLowerBound(date);                          // calls axisLowerBoundListener
-
-                double rangeLen = calcRangeLength(axis);
-                rangeCTRL.setRangeLengthAndPosition(rangeLen);     // calls rangePositionListener
+        updateData(epochDays, 0, epochDays.length);
+    }
 
-                level -= 1;
-            };
+    /**
+     * Inform the RangeConverter about a part of an array of epoch days.
+     *
+     * @param epochDays  array of dates as epoch days
+     * @param from       index of the first value (inclusive)
+     * @param to         index of the last value (exclusive)
+     */
+    public void updateData(long[] epochDays, int from, int to)
+    {
+        Objects.checkFromToIndex(from, to, epochDays.length);
 
-        ChangeListener<Number> rangePositionlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
 
-                System.err.printf("%s%d RangePosition (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+        for (int n = from; n < to; n++) {
+            min = Math.min(min, epochDays[n]);
+            max = Math.max(max, epochDays[n]);
+        }
+        setDataRange(from == to, min, max);
+    }
 
-                rangeCTRL.moveLimits(nVal.doubleValue());          // calls lowerRangeLimitListener
-                                                                   // calls upperRangeLimitListener
+    /**
+     * Inform the RangeConverter about a part of an array of epoch days. Data stores usually
+     * keep the days as int, which is sufficient for all dates of interest.
+     *
+     * @param epochDays  array of dates as epoch days
+     * @param from       index of the first value (inclusive)
+     * @param to         index of the last value (exclusive)
+     */
+    public void updateData(int[] epochDays, int from, int to)
+    {
+        Objects.checkFromToIndex(from, to, epochDays.length);
 
-                level -= 1;
-            };
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
 
-        rangeCTRL.addUpperLimitListener(upperRangeLimitlistener);
-        rangeCTRL.addLowerLimitListener(lowerRangeLimitlistener);
-        rangeCTRL.addRangeListener(rangePositionlistener);
+        for (int n = from; n < to; n++) {
+            min = Math.min(min, epochDays[n]);
+            max = Math.max(max, epochDays[n]);
+        }
+        setDataRange(from == to, min, max);
     }
 
-    private double calcRangeLength(LocalDateAxis axis)
+    /**
+     * Inform the RangeConverter about the earliest and the latest date if the caller knows
+     * them already.
+     *
+     * @param minEpochDay   earliest date as epoch day
+     * @param maxEpochDay   latest date as epoch day
+     */
+    public void updateDataRange(long minEpochDay, long maxEpochDay)
     {
-        return 100.0 * DAYS.between(axis.getUpperBound(),axis.getLowerBound()) /
-                       DAYS.between(maxRange, minRange);
+        setDataRange(false, Math.min(minEpochDay, maxEpochDay), Math.max(minEpochDay, maxEpochDay));
     }
 
-    private double localDateToPercent(LocalDate date)
+    @Override
+    public void updateData(RangeCollector<LocalDate> collector)
     {
-        long range = maxRange.toEpochDay() - minRange.toEpochDay();
-        return range == 0 ? 0 : (double)(date.toEpochDay() - minRange.toEpochDay()) / range  * 100;
+        if (collector instanceof RangeCollector.EpochDayExtremes extremes)
+            setDataRange(extremes.isEmpty(), extremes.getMin(), extremes.getMax());
+        else
+            super.updateData(collector);
     }
 
-    private LocalDate percentToLocalDate(double percent)
+    /**
+     * The LocalDateRangeConverter only needs the earliest and the latest date of the data.
+     *
+     * @return  collector tracking the extremes only
+     */
+    @Override
+    public RangeCollector<LocalDate> createCollector()
     {
-        long range = maxRange.toEpochDay() - minRange.toEpochDay();
-        long epochDay = Math.round(percent/100 * range);
-        return LocalDate.ofEpochDay(epochDay + minRange.toEpochDay());
+        return RangeCollector.epochDayExtremes();
     }
-
-    /****************************************************************************************/
-    /*                              Listener definitions                                    */    
-    /****************************************************************************************/
-
-    int level = 0;
-
-    private final ChangeListener<LocalDate> axisUpperBoundlistener = (obs, oVal, nVal) -> {
-            System.err.printf("%s%d UpperAxisBoundariy (%s / %s)\n", " ".repeat(level), level, oVal == null ? "null" : oVal.toString(), nVal.toString());
-            level += 1;
-
-            double percent = localDateToPercent(nVal);
-            LocalDate value = nVal;
-
-            if (axis.getUpperBound().isBefore(axis.getLowerBound())) {
-                value = axis.getLowerBound();
-                percent = localDateToPercent(axis.getLowerBound());
-            }
-
-            if (nVal.isBefore(minRange)) {
-                value = minRange;
-                percent = 0;
-            } else if (nVal.isAfter(maxRange)) {
-                value = maxRange;
-                percent = 100;
-            }
-
-            if (!nVal.equals(value))
-                axis.setUpperBound(value);                     // calls axisUpperBoundListener
-
-            for (RangeControlSet item : listControlSets)
-                item.setUpperLimit(percent);              // calls upperRangeLimitListener twice
-
-            level -= 1;
-        };
-            
-    private final ChangeListener<LocalDate> axisLowerBoundlistener = (obs, oVal, nVal) -> {
-            System.err.printf("%s%d LowerAxisBoundariy (%s / %s)\n", " ".repeat(level), level, oVal == null ? "null" : oVal.toString(), nVal.toString());
-            level += 1;
-
-            double percent = localDateToPercent(nVal);
-            LocalDate value = nVal;
-
-            if (axis.getLowerBound().isAfter(axis.getUpperBound())) {
-                value = axis.getUpperBound();
-                percent = localDateToPercent(value);
-            }
-
-            if (value.isBefore(minRange)) {
-                value = minRange;
-                percent = 0;
-            } else if (value.isAfter(maxRange)) {
-                value = maxRange;
-                percent = 100;
-            }
-
-            if (!nVal.equals(value))
-                axis.setLowerBound(value);                     // calls axisLowerBoundListener
-
-            for (RangeControlSet item : listControlSets)
-                item.setLowerLimit(percent);              // calls lowerRangeLimitListener twice
-
-            level -= 1;
-        };
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javafx.scene.chart.Axis;
+
+/**
+ * Time axis with a resolution of one second, the sibling of {@link LocalDateAxis} for
+ * readings taken several times a day (e.g. hourly inflow of a reservoir). The tick intervals
+ * range from minutes up to years.<p>
+ *
+ * Internally all points in time are handled as epoch seconds. A LocalDateTime carries no
+ * time zone, it is converted with {@link ZoneOffset#UTC} which makes the conversion a pure
+ * arithmetic operation without daylight saving gaps.
+ *
+ * @author grimm
+ */
+public class LocalDateTimeAxis
+extends TemporalAxis<LocalDateTime>
+{
+    private final static int AVERAGE_TICK_GAP = 70;
+
+    private long minRangeSecond;
+    private long maxRangeSecond;
+    private AxisTick tickInterval;
+
+    public LocalDateTimeAxis()
+    {
+        tickInterval = AxisTick.HOURS;
+        minRangeSecond = maxRangeSecond = toEpochSecond(LocalDateTime.now());
+    }
+
+    public LocalDateTimeAxis(LocalDateTime lBound, LocalDateTime uBound)
+    {
+        this();
+        setAutoRanging(false);
+        setLowerBound(lBound);
+        setUpperBound(uBound);
+    }
+
+    /**
+     * Convert a point in time into the numeric representation used by this axis.
+     *
+     * @param dateTime   point in time
+     * @return           seconds since 1970-01-01T00:00
+     */
+    public static long toEpochSecond(LocalDateTime dateTime)
+    {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Convert epoch seconds back into a LocalDateTime.
+     *
+     * @param epochSecond   seconds since 1970-01-01T00:00
+     * @return              point in time
+     */
+    public static LocalDateTime ofEpochSecond(long epochSecond)
+    {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected long toEpochValue(LocalDateTime value)
+    {
+        return toEpochSecond(value);
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected LocalDateTime ofEpochValue(long epochValue)
+    {
+        return ofEpochSecond(epochValue);
+    }
+
+    @Override
+    public void invalidateRange(List<LocalDateTime> list)
+    {
+        super.invalidateRange(list);
+
+        if (list.isEmpty()) {
+            minRangeSecond = maxRangeSecond = toEpochSecond(LocalDateTime.now());
+            return;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (LocalDateTime dateTime : list) {
+            long epochSecond = toEpochSecond(dateTime);
+            if (epochSecond < min) min = epochSecond;
+            if (epochSecond > max) max = epochSecond;
+        }
+        minRangeSecond = min;
+        maxRangeSecond = max;
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected Object autoRange(double length)
+    {
+        if (isAutoRanging())
+            return new Object[]{ofEpochSecond(minRangeSecond), ofEpochSecond(maxRangeSecond)};
+
+        else if (getLowerBound() == null || getUpperBound() == null)
+            throw new IllegalArgumentException("If autoRanging is false, a lower and upper bound must be set.");
+
+        return getRange();
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected List<LocalDateTime> calculateTickValues(double length, Object range)
+    {
+        Object[] newRange = (Object[]) range;
+        LocalDateTime earliest = (LocalDateTime) newRange[0];
+        LocalDateTime latest = (LocalDateTime) newRange[1];
+
+        List<LocalDateTime> tickList = new ArrayList<>();
+
+        long numTicks = (long) length / AVERAGE_TICK_GAP;
+        long numSeconds = toEpochSecond(latest) - toEpochSecond(earliest);
+
+        tickInterval = AxisTick.findInterval(numSeconds, (int) numTicks);
+
+        LocalDateTime tick = tickInterval.normalizeToCenter(earliest);
+        while (tick.isBefore(latest)) {
+            tickList.add(tick);
+            tick = tickInterval.nextInterval(tick);
+        }
+        return tickList;
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected List<LocalDateTime> calculateMinorTickValues()
+    {
+        List<LocalDateTime> tickList = new ArrayList<>();
+
+        LocalDateTime lastTick = null;
+        for (Axis.TickMark<LocalDateTime> tick : getTickMarks()) {
+            lastTick = tick.getValue();
+            tickList.add(tickInterval.normalizeToBegin(lastTick));
+        }
+
+        if (lastTick != null)
+            tickList.add(tickInterval.normalizeToEnd(lastTick));
+
+        return tickList;
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected String getTickMarkLabel(LocalDateTime dateTime)
+    {
+        return tickInterval.getLabel(dateTime);
+    }
+
+    protected enum AxisTick
+    {
+        MINUTES(Duration.ofMinutes(1), "HH:mm"),
+        QUARTER_HOURS(Duration.ofMinutes(15), "HH:mm"),
+        HOURS(Duration.ofHours(1), "HH:mm\ndd.MM."),
+        SIX_HOURS(Duration.ofHours(6), "HH:mm\ndd.MM."),
+        DAYS(Period.ofDays(1), "dd MM yy"),
+        WEEKS(Period.ofWeeks(1), "'W'w\nYYYY"),
+        MONTHS(Period.ofMonths(1), "LLL\nyyyy"),
+        YEARS(Period.ofYears(1), "yyyy");
+
+        // values() clones the array on each call
+        private static final AxisTick[] VALUES = values();
+
+        private final TemporalAmount step;
+        private final String format;
+        private final long lengthInSeconds;
+
+        private Locale formatterLocale;
+        private DateTimeFormatter formatter;
+
+        private AxisTick(Duration d, String f)
+        {
+            step = d;
+            format = f;
+            lengthInSeconds = d.getSeconds();
+        }
+
+        private AxisTick(Period p, String f)
+        {
+            step = p;
+            format = f;
+            lengthInSeconds = (p.getYears() * 365L + p.getMonths() * 30L + p.getDays()) * 86400L;
+        }
+
+        /**
+         * Find the interval whose number of ticks within the given span comes closest to the
+         * requested number of ticks.
+         *
+         * @param spanInSeconds  length of the axis range
+         * @param cntTicks       number of ticks that fit on the axis
+         * @return               best matching interval
+         */
+        public static AxisTick findInterval(long spanInSeconds, int cntTicks)
+        {
+            AxisTick bestInterval = VALUES[0];
+            long smallestDistance = Long.MAX_VALUE;
+
+            for (AxisTick interval : VALUES) {
+                long delta = spanInSeconds / interval.lengthInSeconds - cntTicks;
+                long distance = delta * delta;
+                if (distance < smallestDistance) {
+                    smallestDistance = distance;
+                    bestInterval = interval;
+                }
+            }
+            return bestInterval;
+        }
+
+        public String getLabel(LocalDateTime dateTime)
+        {
+            Locale locale = Locale.getDefault();
+
+            synchronized (this) {
+                if (!locale.equals(formatterLocale)) {
+                    formatterLocale = locale;
+                    formatter = DateTimeFormatter.ofPattern(format, locale);
+                }
+                return dateTime.format(formatter);
+            }
+        }
+
+        public LocalDateTime normalizeToBegin(LocalDateTime dateTime)
+        {
+            switch (this) {
+                case MINUTES -> {
+                    return dateTime.truncatedTo(ChronoUnit.MINUTES);
+                }
+                case QUARTER_HOURS -> {
+                    LocalDateTime hour = dateTime.truncatedTo(ChronoUnit.HOURS);
+                    return hour.withMinute(dateTime.getMinute() / 15 * 15);
+                }
+                case HOURS -> {
+                    return dateTime.truncatedTo(ChronoUnit.HOURS);
+                }
+                case SIX_HOURS -> {
+                    LocalDateTime day = dateTime.truncatedTo(ChronoUnit.DAYS);
+                    return day.withHour(dateTime.getHour() / 6 * 6);
+                }
+                case DAYS -> {
+                    return dateTime.truncatedTo(ChronoUnit.DAYS);
+                }
+                case WEEKS -> {
+                    LocalDateTime day = dateTime.truncatedTo(ChronoUnit.DAYS);
+                    return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                }
+                case MONTHS -> {
+                    return dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                }
+                default -> {    // YEARS
+                    return dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+                }
+            }
+        }
+
+        public LocalDateTime normalizeToCenter(LocalDateTime dateTime)
+        {
+            // ticks of intervals shorter than a day are placed on the full time
+            LocalDateTime begin = normalizeToBegin(dateTime);
+            switch (this) {
+                case MINUTES, QUARTER_HOURS, HOURS, SIX_HOURS -> {
+                    return begin;
+                }
+                case MONTHS -> {
+                    return begin.withDayOfMonth(15);
+                }
+                case YEARS -> {
+                    return begin.withMonth(7);
+                }
+                default -> {
+                    return begin.plusSeconds(lengthInSeconds / 2);
+                }
+            }
+        }
+
+        public LocalDateTime normalizeToEnd(LocalDateTime dateTime)
+        {
+            return nextInterval(normalizeToBegin(dateTime));
+        }
+
+        public LocalDateTime nextInterval(LocalDateTime dateTime)
+        {
+            return dateTime.plus(step);
+        }
+    }
+}
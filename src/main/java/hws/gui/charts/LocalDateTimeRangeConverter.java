@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * RangeConverter for a {@link LocalDateTimeAxis}. Like the axis it handles all points in time
+ * as epoch seconds (see {@link LocalDateTimeAxis#toEpochSecond(java.time.LocalDateTime)}).
+ *
+ * @author grimm
+ */
+public class LocalDateTimeRangeConverter
+extends TemporalRangeConverter<LocalDateTime>
+{
+    public LocalDateTimeRangeConverter(LocalDateTimeAxis axis)
+    {
+        super(axis, today(), today().plusDays(1));   // Default: today 00:00 - tomorrow 00:00
+    }
+
+    private static LocalDateTime today()
+    {
+        return LocalDateTime.now().toLocalDate().atStartOfDay();
+    }
+
+    /**
+     * Inform the RangeConverter about a part of an array of epoch seconds.
+     *
+     * @param epochSeconds  array of points in time as epoch seconds
+     * @param from          index of the first value (inclusive)
+     * @param to            index of the last value (exclusive)
+     */
+    public void updateData(long[] epochSeconds, int from, int to)
+    {
+        Objects.checkFromToIndex(from, to, epochSeconds.length);
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        for (int n = from; n < to; n++) {
+            min = Math.min(min, epochSeconds[n]);
+            max = Math.max(max, epochSeconds[n]);
+        }
+        setDataRange(from == to, min, max);
+    }
+
+    /**
+     * The LocalDateTimeRangeConverter only needs the earliest and the latest point in time.
+     *
+     * @return  collector tracking the extremes only
+     */
+    @Override
+    public RangeCollector<LocalDateTime> createCollector()
+    {
+        return RangeCollector.extremes(Comparator.naturalOrder());
+    }
+}
@@ -18,6 +18,7 @@ package hws.gui.charts;
 
 import hws.gui.charts.skins.RangeControlSet;
 import java.util.List;
+import java.util.Objects;
 import javafx.beans.value.ChangeListener;
 import javafx.scene.chart.ValueAxis;
 
@@ -53,18 +54,89 @@ extends RangeConverter<Number>
     @Override
     public void updateData(List<Number> list)
     {
-        if (list.isEmpty()) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+
+        for (Number value : list) {
+            min = Math.min(min, value.doubleValue());
+            max = Math.max(max, value.doubleValue());
+        }
+        setDataRange(list.isEmpty(), min, max);
+    }
+
+    /**
+     * Inform the RangeConverter about the data values of the maintained axis. This variant
+     * takes the values as primitives, so large data sets don't need to be boxed.
+     *
+     * @param values   array of data values
+     */
+    public void updateData(double[] values)
+    {
+        updateData(values, 0, values.length);
+    }
+
+    /**
+     * Inform the RangeConverter about a part of an array of data values.
+     *
+     * @param values   array of data values
+     * @param from     index of the first value (inclusive)
+     * @param to       index of the last value (exclusive)
+     */
+    public void updateData(double[] values, int from, int to)
+    {
+        Objects.checkFromToIndex(from, to, values.length);
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+
+        for (int n = from; n < to; n++) {
+            double value = values[n];
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        setDataRange(from == to, min, max);
+    }
+
+    /**
+     * Inform the RangeConverter about the extremes of the data values if the caller knows
+     * them already.
+     *
+     * @param min   smallest data value
+     * @param max   largest data value
+     */
+    public void updateDataRange(double min, double max)
+    {
+        setDataRange(false, Math.min(min, max), Math.max(min, max));
+    }
+
+    @Override
+    public void updateData(RangeCollector<Number> collector)
+    {
+        if (collector instanceof RangeCollector.NumberExtremes extremes)
+            setDataRange(extremes.isEmpty(), extremes.getMin(), extremes.getMax());
+        else
+            super.updateData(collector);
+    }
+
+    /**
+     * The NumberRangeConverter only needs the smallest and the largest value of the data.
+     *
+     * @return  collector tracking the extremes only
+     */
+    @Override
+    public RangeCollector<Number> createCollector()
+    {
+        return RangeCollector.numberExtremes();
+    }
+
+    private void setDataRange(boolean empty, double min, double max)
+    {
+        if (empty) {
             minRange = axis.getLowerBound();
             maxRange = axis.getUpperBound();
-
         } else  {
-            minRange = Double.MAX_VALUE;
-            maxRange = -Double.MAX_VALUE;
-
-            for (Number value : list) {
-                minRange = Math.min(minRange, value.doubleValue());
-                maxRange = Math.max(maxRange, value.doubleValue());
-            }
+            minRange = min;
+            maxRange = max;
         }
 
         if (minRange > axis.getLowerBound())  minRange = axis.getLowerBound();
@@ -90,51 +162,75 @@ extends RangeConverter<Number>
         rangeCTRL.setRangeLengthAndPosition(rangeLength);
         
         ChangeListener<Number> upperRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
 
-                System.err.printf("%s%d UpperRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+                RangeTrace.enter(RangeTrace.Event.UPPER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
 
-                Number data = percentToNumber(nVal.doubleValue());
-                axis.setUpperBound(data.doubleValue());            // calls axisUpperBoundListener
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.UPPER_RANGE_LIMIT, () -> {
+                        double lower = axis.getLowerBound();
+                        double upper = percentToNumber(percent).doubleValue();
+                        setBounds(lower, Math.max(lower, upper));
+                    });
 
-                double rangeLen = calcRangeLength(axis);
-                rangeCTRL.setRangeLengthAndPosition(rangeLen); // calls rangePositionListener
-
-                level -= 1;
+                RangeTrace.exit();
             };
 
         ChangeListener<Number> lowerRangeLimitlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
-
-                System.err.printf("%s%d LowerRangeLimit (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
 
-                Number data = percentToNumber(nVal.doubleValue());
-                axis.setLowerBound(data.doubleValue());            // calls axisLowerBoundListener
+                RangeTrace.enter(RangeTrace.Event.LOWER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
 
-                double rangeLen = calcRangeLength(axis);
-                rangeCTRL.setRangeLengthAndPosition(rangeLen); // calls rangePositionListener
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.LOWER_RANGE_LIMIT, () -> {
+                        double lower = percentToNumber(percent).doubleValue();
+                        double upper = axis.getUpperBound();
+                        setBounds(Math.min(lower, upper), upper);
+                    });
 
-                level -= 1;
+                RangeTrace.exit();
             };
 
         ChangeListener<Number> rangePositionlistener = (obs, oVal, nVal) -> {
-                if (areEqual(oVal, nVal)) return;
+                if (areEqual(oVal, nVal) || isUpdating()) return;
 
-                System.err.printf("%s%d RangePosition (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-                level += 1;
+                RangeTrace.enter(RangeTrace.Event.RANGE_POSITION, this, oVal.doubleValue(), nVal.doubleValue());
 
-                rangeCTRL.moveLimits(nVal.doubleValue());   // calls lowerRangeLimitListener
-                                                                   // calls upperRangeLimitListener
-                level -= 1;
-        };
+                // move both bounds at once and keep the visible span
+                double position = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.RANGE_POSITION, () -> {
+                        double span = axis.getUpperBound() - axis.getLowerBound();
+                        double lower = percentToNumber(rangeCTRL.lowerLimitAt(position)).doubleValue();
+                        lower = Math.max(minRange, Math.min(lower, maxRange - span));
+                        setBounds(lower, lower + span);
+                    });
+
+                RangeTrace.exit();
+            };
 
         rangeCTRL.addUpperLimitListener(upperRangeLimitlistener);
         rangeCTRL.addLowerLimitListener(lowerRangeLimitlistener);
         rangeCTRL.addRangeListener(rangePositionlistener);
     }
 
+    // set both bounds of the axis, clipped to the data range
+    private void setBounds(double lower, double upper)
+    {
+        axis.setLowerBound(Math.max(minRange, Math.min(lower, maxRange)));
+        axis.setUpperBound(Math.max(minRange, Math.min(upper, maxRange)));
+    }
+
+    @Override
+    protected void synchronizeControlSets()
+    {
+        double lower = numberToPercent(axis.getLowerBound());
+        double upper = numberToPercent(axis.getUpperBound());
+        double rangeLength = calcRangeLength(axis);
+
+        for (RangeControlSet item : listControlSets)
+            item.setLimits(lower, upper, rangeLength);
+    }
+
     private double calcRangeLength(ValueAxis<? extends Number> axis)
     {
         double val = 100.0 * (axis.getUpperBound() - axis.getLowerBound()) /
@@ -160,71 +256,28 @@ extends RangeConverter<Number>
     /****************************************************************************************/
     /*                              Listener definitions                                    */    
     /****************************************************************************************/
-    
-    int level = 0;
-    
 
     private final ChangeListener<Number> axisUpperBoundlistener = (obs, oVal, nVal) -> {
-            if (areEqual(oVal, nVal)) return;
-
-            System.err.printf("%s%d UpperAxisBoundariy (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-            level += 1;
-
-            double percent = numberToPercent(nVal);
-            double value = nVal.doubleValue();
-
-            if (axis.getUpperBound() < axis.getLowerBound()) {
-                value = axis.getLowerBound();
-                percent = numberToPercent(axis.getLowerBound());
-            }
+            if (areEqual(oVal, nVal) || isUpdating()) return;
 
-            if (nVal.doubleValue() < minRange) {
-                value = minRange;
-                percent = 0;
+            RangeTrace.enter(RangeTrace.Event.UPPER_AXIS_BOUND, this, oVal.doubleValue(), nVal.doubleValue());
 
-            } else if (nVal.doubleValue() > maxRange) {
-                value = maxRange;
-                percent = 100;
-            }
+            double lower = axis.getLowerBound();
+            double upper = nVal.doubleValue();
+            update(() -> setBounds(lower, Math.max(lower, upper)));
 
-            if (nVal.doubleValue() != value)
-                axis.setUpperBound(value);                // calls axisUpperBoundListener
-
-            for (RangeControlSet item : listControlSets)
-                item.setUpperLimit(percent);              // calls upperRangeLimitListener twice
-
-            level -= 1;
+            RangeTrace.exit();
         };
             
     private final ChangeListener<Number> axisLowerBoundlistener = (obs, oVal, nVal) -> {
-            if (areEqual(oVal, nVal)) return;
-
-            System.err.printf("%s%d LowerAxisBoundariy (%f / %f)\n", " ".repeat(level), level, oVal.doubleValue(), nVal.doubleValue());
-            level += 1;
-
-            double percent = numberToPercent(axis.getLowerBound());
-            double value = nVal.doubleValue();
+            if (areEqual(oVal, nVal) || isUpdating()) return;
 
-            if (axis.getLowerBound() > axis.getUpperBound()) {
-                value = axis.getUpperBound();
-                percent = numberToPercent(value);
-            }
+            RangeTrace.enter(RangeTrace.Event.LOWER_AXIS_BOUND, this, oVal.doubleValue(), nVal.doubleValue());
 
-            if (nVal.doubleValue() < minRange) {
-                value = minRange;
-                percent = 0;
-
-            } else if (nVal.doubleValue() > maxRange) {
-                value = maxRange;
-                percent = 100;
-            }
-
-            if (nVal.doubleValue() != value)
-                axis.setLowerBound(value);                // calls axisLowerBoundListener
-            
-            for (RangeControlSet item : listControlSets)
-                item.setLowerLimit(percent);              // calls lowerRangeLimitListener twice
+            double lower = nVal.doubleValue();
+            double upper = axis.getUpperBound();
+            update(() -> setBounds(Math.min(lower, upper), upper));
 
-            level -= 1;
+            RangeTrace.exit();
         };
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.ObservableList;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+
+/**
+ * Fills a Path with straight line segments and reuses the MoveTo/LineTo elements of the
+ * previous pass. The coordinates of existing elements are updated in place, new elements are
+ * only created if the number of segments grows. Surplus elements are removed in one step.<p>
+ *
+ * A pass looks like this:
+ * <pre>
+ *     pool.begin();
+ *     pool.addLine(x1, y1, x2, y2);
+ *     ...
+ *     pool.end();
+ * </pre>
+ * The elements of the Path must only be modified through the pool.
+ *
+ * @author grimm
+ */
+class PathElementPool
+{
+    private final Path path;
+    private final List<PathElement> pending = new ArrayList<>();
+    private int count;
+
+    PathElementPool(Path path)
+    {
+        this.path = path;
+    }
+
+    /**
+     * Start a new pass.
+     */
+    void begin()
+    {
+        count = 0;
+        pending.clear();
+    }
+
+    /**
+     * Add a line segment from (x1,y1) to (x2,y2).
+     */
+    void addLine(double x1, double y1, double x2, double y2)
+    {
+        ObservableList<PathElement> elements = path.getElements();
+        int index = count * 2;
+        count++;
+
+        if (index < elements.size()) {
+            MoveTo moveTo = (MoveTo) elements.get(index);
+            LineTo lineTo = (LineTo) elements.get(index + 1);
+            moveTo.setX(x1);
+            moveTo.setY(y1);
+            lineTo.setX(x2);
+            lineTo.setY(y2);
+        } else {
+            pending.add(new MoveTo(x1, y1));
+            pending.add(new LineTo(x2, y2));
+        }
+    }
+
+    /**
+     * Finish the pass. New elements are appended, elements not used in this pass are removed.
+     */
+    void end()
+    {
+        ObservableList<PathElement> elements = path.getElements();
+        if (!pending.isEmpty()) {
+            elements.addAll(pending);
+            pending.clear();
+        } else if (elements.size() > count * 2) {
+            elements.remove(count * 2, elements.size());
+        }
+    }
+
+    /**
+     * @return number of line segments added in the current or last pass
+     */
+    int size()
+    {
+        return count;
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A RangeCollector gathers the data values of one axis from all series of a chart. What is
+ * actually kept depends on the needs of the {@link RangeConverter} that consumes the values:
+ * <ul>
+ * <li>A CategoryAxis needs every distinct value in the order of its first appearance.
+ * <li>A NumberAxis or a LocalDateAxis only need the smallest and the largest value. For both
+ *     there are collectors which keep the extremes as primitives.
+ * </ul>
+ * Each RangeConverter creates the collector matching its axis, see
+ * {@link RangeConverter#createCollector()}.<p>
+ *
+ * Collectors could be maintained incrementally. Every change of the collected values increments
+ * the {@link #getVersion() version}, so a consumer is able to detect if the range has to be
+ * updated at all.
+ *
+ * @param <T>    Native Datatype of the axis
+ *
+ * @author grimm
+ */
+public abstract class RangeCollector<T>
+{
+    protected int version;
+
+    /**
+     * Add a single data value. <code>null</code> values are ignored.
+     *
+     * @param value  data value of a chart item
+     */
+    public abstract void add(T value);
+
+    /**
+     * Remove a single data value that has been added before. A collector that doesn't keep
+     * enough information to undo the value (e.g. an extreme value has been removed) returns
+     * false. In this case it must be cleared and filled again.
+     *
+     * @param value  data value of a chart item
+     * @return       true, if the collector is still valid
+     */
+    public abstract boolean remove(T value);
+
+    /**
+     * Forget all values collected so far.
+     */
+    public abstract void clear();
+
+    /**
+     * @return true, if no value has been collected yet
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * Return the collected values in a form that could be passed to
+     * {@link RangeConverter#updateData(java.util.List)}.
+     *
+     * @return list of values, never null
+     */
+    public abstract List<T> values();
+
+    /**
+     * Add all values collected by another collector of the same kind. Collectors built in
+     * parallel for parts of the data could be combined this way.
+     *
+     * @param other  collector created by the same factory method
+     */
+    public abstract void merge(RangeCollector<T> other);
+
+    /**
+     * @return  counter which is incremented each time the collected values change
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    public void addAll(List<? extends T> list)
+    {
+        for (T value : list)
+            add(value);
+    }
+
+    /**
+     * Create a collector that keeps every distinct value in insertion order.
+     *
+     * @param <T>    Native Datatype of the axis
+     * @return       new collector instance
+     */
+    public static <T> RangeCollector<T> distinct()
+    {
+        return new Distinct<>();
+    }
+
+    /**
+     * Create a collector that only tracks the smallest and the largest value.
+     *
+     * @param <T>         Native Datatype of the axis
+     * @param comparator  order of the values
+     * @return            new collector instance
+     */
+    public static <T> RangeCollector<T> extremes(Comparator<? super T> comparator)
+    {
+        return new Extremes<>(comparator);
+    }
+
+    /**
+     * Create a collector that tracks the smallest and the largest value of Numbers as primitive
+     * doubles. Adding values never allocates objects.
+     *
+     * @return            new collector instance
+     */
+    public static NumberExtremes numberExtremes()
+    {
+        return new NumberExtremes();
+    }
+
+    /**
+     * Create a collector that tracks the earliest and the latest date as primitive epoch days.
+     *
+     * @return            new collector instance
+     */
+    public static EpochDayExtremes epochDayExtremes()
+    {
+        return new EpochDayExtremes();
+    }
+
+    /****************************************************************************************/
+    /*                              Collector implementations                               */
+    /****************************************************************************************/
+
+    static class Distinct<T>
+    extends RangeCollector<T>
+    {
+        // value -> number of occurrences
+        private final LinkedHashMap<T,Integer> map = new LinkedHashMap<>();
+
+        @Override
+        public void add(T value)
+        {
+            if (value != null && map.merge(value, 1, Integer::sum) == 1)
+                version++;
+        }
+
+        @Override
+        public boolean remove(T value)
+        {
+            Integer cnt = (value != null) ? map.get(value) : null;
+            if (cnt == null)
+                return true;
+
+            if (cnt > 1) {
+                map.put(value, cnt - 1);
+            } else {
+                map.remove(value);
+                version++;
+            }
+            return true;
+        }
+
+        @Override
+        public void clear()
+        {
+            if (!map.isEmpty())
+                version++;
+            map.clear();
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return map.isEmpty();
+        }
+
+        @Override
+        public List<T> values()
+        {
+            return new ArrayList<>(map.keySet());
+        }
+
+        @Override
+        public void merge(RangeCollector<T> other)
+        {
+            if (other instanceof Distinct<T> distinct) {
+                for (Map.Entry<T,Integer> entry : distinct.map.entrySet())
+                    if (map.merge(entry.getKey(), entry.getValue(), Integer::sum).equals(entry.getValue()))
+                        version++;
+            } else {
+                addAll(other.values());
+            }
+        }
+    }
+
+    static class Extremes<T>
+    extends RangeCollector<T>
+    {
+        private final Comparator<? super T> comparator;
+        private T min;
+        private T max;
+
+        Extremes(Comparator<? super T> comparator)
+        {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public void add(T value)
+        {
+            if (value == null)
+                return;
+
+            if (min == null) {
+                min = max = value;
+                version++;
+            } else if (comparator.compare(value, min) < 0) {
+                min = value;
+                version++;
+            } else if (comparator.compare(value, max) > 0) {
+                max = value;
+                version++;
+            }
+        }
+
+        @Override
+        public boolean remove(T value)
+        {
+            if (value == null || min == null)
+                return true;
+
+            return comparator.compare(value, min) > 0 && comparator.compare(value, max) < 0;
+        }
+
+        @Override
+        public void clear()
+        {
+            if (min != null)
+                version++;
+            min = max = null;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return min == null;
+        }
+
+        @Override
+        public List<T> values()
+        {
+            List<T> list = new ArrayList<>(2);
+            if (min != null) {
+                list.add(min);
+                if (max != min)
+                    list.add(max);
+            }
+            return list;
+        }
+
+        @Override
+        public void merge(RangeCollector<T> other)
+        {
+            addAll(other.values());
+        }
+    }
+
+    public static class NumberExtremes
+    extends RangeCollector<Number>
+    {
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+
+        @Override
+        public void add(Number value)
+        {
+            if (value != null)
+                add(value.doubleValue());
+        }
+
+        public void add(double value)
+        {
+            if (value < min) {
+                min = value;
+                version++;
+            }
+            if (value > max) {
+                max = value;
+                version++;
+            }
+        }
+
+        @Override
+        public boolean remove(Number value)
+        {
+            if (value == null || isEmpty())
+                return true;
+
+            return value.doubleValue() > min && value.doubleValue() < max;
+        }
+
+        @Override
+        public void clear()
+        {
+            if (!isEmpty())
+                version++;
+            min = Double.MAX_VALUE;
+            max = -Double.MAX_VALUE;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return min > max;
+        }
+
+        @Override
+        public List<Number> values()
+        {
+            List<Number> list = new ArrayList<>(2);
+            if (!isEmpty()) {
+                list.add(min);
+                if (max != min)
+                    list.add(max);
+            }
+            return list;
+        }
+
+        @Override
+        public void merge(RangeCollector<Number> other)
+        {
+            if (other instanceof NumberExtremes extremes) {
+                if (!extremes.isEmpty()) {
+                    add(extremes.min);
+                    add(extremes.max);
+                }
+            } else {
+                addAll(other.values());
+            }
+        }
+
+        public double getMin()
+        {
+            return min;
+        }
+
+        public double getMax()
+        {
+            return max;
+        }
+    }
+
+    public static class EpochDayExtremes
+    extends RangeCollector<LocalDate>
+    {
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        @Override
+        public void add(LocalDate value)
+        {
+            if (value != null)
+                add(value.toEpochDay());
+        }
+
+        public void add(long epochDay)
+        {
+            if (epochDay < min) {
+                min = epochDay;
+                version++;
+            }
+            if (epochDay > max) {
+                max = epochDay;
+                version++;
+            }
+        }
+
+        @Override
+        public boolean remove(LocalDate value)
+        {
+            if (value == null || isEmpty())
+                return true;
+
+            long epochDay = value.toEpochDay();
+            return epochDay > min && epochDay < max;
+        }
+
+        @Override
+        public void clear()
+        {
+            if (!isEmpty())
+                version++;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return min > max;
+        }
+
+        @Override
+        public List<LocalDate> values()
+        {
+            List<LocalDate> list = new ArrayList<>(2);
+            if (!isEmpty()) {
+                list.add(LocalDate.ofEpochDay(min));
+                if (max != min)
+                    list.add(LocalDate.ofEpochDay(max));
+            }
+            return list;
+        }
+
+        @Override
+        public void merge(RangeCollector<LocalDate> other)
+        {
+            if (other instanceof EpochDayExtremes extremes) {
+                if (!extremes.isEmpty()) {
+                    add(extremes.min);
+                    add(extremes.max);
+                }
+            } else {
+                addAll(other.values());
+            }
+        }
+
+        public long getMin()
+        {
+            return min;
+        }
+
+        public long getMax()
+        {
+            return max;
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package hws.gui.charts;
 
+import hws.gui.charts.skins.PulseCoalescer;
 import hws.gui.charts.skins.RangeControlSet;
 import java.util.ArrayList;
 import java.util.List;
@@ -40,6 +41,9 @@ import javafx.scene.chart.Axis;
 public abstract class RangeConverter<T>
 {
     protected final ArrayList<RangeControlSet> listControlSets = new ArrayList<>();
+
+    private boolean updating;
+    private PulseCoalescer coalescer;
     
     /**
      * Constructor of the RangeConverter. This must be overloaded by the inherit class.<p>
@@ -57,6 +61,30 @@ public abstract class RangeConverter<T>
      * @param list  List of data values.
      */
     public abstract void updateData(List<T> list);
+
+    /**
+     * Inform the RangeConverter about the data values collected by a {@link RangeCollector}.
+     * The collector must have been created by {@link #createCollector()}. Converters could
+     * override this to read the range from the collector without building a list first.
+     *
+     * @param collector  collector holding the data values
+     */
+    public void updateData(RangeCollector<T> collector)
+    {
+        updateData(collector.values());
+    }
+
+    /**
+     * Create the collector that extracts the data values for this converter from the chart.
+     * The default collects every distinct value, converters that only depend on the range
+     * of the data should return a cheaper collector.
+     *
+     * @return  new {@link RangeCollector} instance
+     */
+    public RangeCollector<T> createCollector()
+    {
+        return RangeCollector.distinct();
+    }
     
     /**
      * Link a specific RangeControlSet to the axis maintained by this RangeConverter. It is
@@ -91,6 +119,83 @@ public abstract class RangeConverter<T>
         listControlSets.remove(rangeCTRL);
     }
 
+    /**
+     * Apply a change of the axis range as one transaction. The listeners of the axis and of
+     * the range controls call each other in a cycle. While the change runs, all listeners
+     * triggered by the change itself must return immediately (see {@link #isUpdating()}).
+     * The axis therefore receives the new range in a single step. Afterwards the linked
+     * control sets are brought in line once with {@link #synchronizeControlSets()}.<p>
+     *
+     * Calls while an update is already running are ignored.
+     *
+     * @param change  sets the new bounds of the axis
+     */
+    protected void update(Runnable change)
+    {
+        if (updating)
+            return;
+
+        updating = true;
+        try {
+            change.run();
+            synchronizeControlSets();
+        } finally {
+            updating = false;
+        }
+    }
+
+    /**
+     * Apply a change requested by one of the range controls. Without a {@link PulseCoalescer}
+     * the change is applied immediately by {@link #update(java.lang.Runnable)}. Otherwise it
+     * is deferred to the next pulse and replaces a change of the same control which is still
+     * pending. The change must therefore read the current bounds of the axis when it runs.
+     *
+     * @param rangeCTRL  control set the request comes from
+     * @param event      the control which has been moved
+     * @param change     sets the new bounds of the axis
+     */
+    protected void requestUpdate(RangeControlSet rangeCTRL, RangeTrace.Event event, Runnable change)
+    {
+        if (coalescer == null)
+            update(change);
+        else
+            coalescer.submit(new UpdateKey(this, rangeCTRL, event), () -> update(change));
+    }
+
+    /**
+     * Set the coalescer for the changes requested by the range controls. If set, the axis
+     * receives at most one change per pulse.
+     *
+     * @param coalescer  coalescer or null to apply each change immediately
+     */
+    public void setCoalescer(PulseCoalescer coalescer)
+    {
+        this.coalescer = coalescer;
+    }
+
+    public PulseCoalescer getCoalescer()
+    {
+        return coalescer;
+    }
+
+    // identifies a pending change of one control of a control set
+    private record UpdateKey(RangeConverter<?> converter, RangeControlSet rangeCTRL, RangeTrace.Event event) { }
+
+    /**
+     * @return  true, while a change of the range is applied by {@link #update(java.lang.Runnable)}
+     */
+    protected boolean isUpdating()
+    {
+        return updating;
+    }
+
+    /**
+     * Set the limits and the range thumb of all linked control sets according to the current
+     * bounds of the axis. This is called at the end of each {@link #update(java.lang.Runnable)}.
+     * The default does nothing.
+     */
+    protected void synchronizeControlSets() { }
+
     /**
      * This method compares two Numbers within a certain precission. Numbers can contain
      * Floats and Doubles which simply cannot be compared with "==" or compare() because they
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Trace of the listener callbacks between the axes and the range controls. The listeners
+ * call each other recursively (a scrollbar moves an axis bound, the bound moves the other
+ * scrollbars, ...), so loops between them are hard to spot in a debugger.<p>
+ *
+ * The trace is disabled by default. In this state {@link #enter} and {@link #exit} only read
+ * a volatile flag, nothing is formatted or allocated. Once {@link #setEnabled(boolean) enabled},
+ * the events are stored with their recursion depth and {@link System#nanoTime()} in a ring
+ * buffer of primitive arrays. The last {@value #CAPACITY} events could be written out with
+ * {@link #dump(java.io.PrintStream)} at any time.<p>
+ *
+ * Values are recorded as doubles: percentages of the range controls, numeric bounds, epoch
+ * days of dates and indices of categories.
+ *
+ * @author grimm
+ */
+public final class RangeTrace
+{
+    public enum Event
+    {
+        UPPER_RANGE_LIMIT,
+        LOWER_RANGE_LIMIT,
+        RANGE_POSITION,
+        UPPER_AXIS_BOUND,
+        LOWER_AXIS_BOUND,
+        REMOVE_LISTENERS
+    }
+
+    public final static int CAPACITY = 4096;
+
+    private static volatile boolean enabled;
+
+    private static long[] times;
+    private static Event[] events;
+    private static Object[] sources;
+    private static int[] depths;
+    private static double[] oldValues;
+    private static double[] newValues;
+    private static int next;
+    private static int count;
+    private static int depth;
+
+    private RangeTrace() { }
+
+    /**
+     * Switch the trace on or off. Switching it on allocates the ring buffer on first use.
+     *
+     * @param value   true, to record events
+     */
+    public static synchronized void setEnabled(boolean value)
+    {
+        if (value && times == null) {
+            times = new long[CAPACITY];
+            events = new Event[CAPACITY];
+            sources = new Object[CAPACITY];
+            depths = new int[CAPACITY];
+            oldValues = new double[CAPACITY];
+            newValues = new double[CAPACITY];
+        }
+        depth = 0;
+        enabled = value;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Record the begin of a listener callback. Each call must be followed by {@link #exit()}
+     * when the callback returns.
+     *
+     * @param event      kind of callback
+     * @param source     object whose listener is called
+     * @param oldValue   previous value
+     * @param newValue   new value
+     */
+    public static void enter(Event event, Object source, double oldValue, double newValue)
+    {
+        if (!enabled)
+            return;
+
+        synchronized (RangeTrace.class) {
+            if (times == null)
+                return;
+
+            times[next] = System.nanoTime();
+            events[next] = event;
+            sources[next] = source;
+            depths[next] = depth;
+            oldValues[next] = oldValue;
+            newValues[next] = newValue;
+
+            next = (next + 1) % CAPACITY;
+            count = Math.min(count + 1, CAPACITY);
+            depth++;
+        }
+    }
+
+    /**
+     * Record the end of a listener callback.
+     */
+    public static void exit()
+    {
+        if (!enabled)
+            return;
+
+        synchronized (RangeTrace.class) {
+            if (depth > 0)
+                depth--;
+        }
+    }
+
+    /**
+     * Record a single event without nesting.
+     *
+     * @param event      kind of event
+     * @param source     object reporting the event
+     * @param value      value of the event
+     */
+    public static void event(Event event, Object source, double value)
+    {
+        if (!enabled)
+            return;
+
+        enter(event, source, Double.NaN, value);
+        exit();
+    }
+
+    /**
+     * @return  number of events in the ring buffer
+     */
+    public static synchronized int size()
+    {
+        return count;
+    }
+
+    /**
+     * Forget all recorded events.
+     */
+    public static synchronized void clear()
+    {
+        if (sources != null)
+            Arrays.fill(sources, null);
+        next = count = depth = 0;
+    }
+
+    /**
+     * Write the recorded events, the oldest first. Each line is indented by the recursion
+     * depth of the event, the time is relative to the oldest event.
+     *
+     * @param out   stream to write to
+     */
+    public static synchronized void dump(PrintStream out)
+    {
+        int first = (next - count + CAPACITY) % CAPACITY;
+        long start = count > 0 ? times[first] : 0;
+
+        for (int n=0; n < count; n++) {
+            int idx = (first + n) % CAPACITY;
+            out.printf("%10.3f us %s%d %s %s (%s / %s)%n",
+                       (times[idx] - start) / 1000.0,
+                       " ".repeat(depths[idx]), depths[idx],
+                       events[idx],
+                       sources[idx] == null ? "-" : sources[idx].getClass().getSimpleName(),
+                       oldValues[idx], newValues[idx]);
+        }
+    }
+}
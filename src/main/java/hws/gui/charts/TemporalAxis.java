@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Side;
+import javafx.scene.Node;
+import javafx.scene.chart.Axis;
+import javafx.scene.shape.Path;
+import javafx.scene.text.Text;
+
+/**
+ * Common base of the time axes {@link LocalDateAxis} and {@link LocalDateTimeAxis}. Each
+ * value of the axis is represented by a long number of time units since the epoch (days or
+ * seconds), so the display position is a linear function of that number. This class keeps
+ * the bounds, the mapping between values and display positions and the minor tick marks,
+ * the subclasses provide the conversion and the tick intervals.
+ *
+ * @param <T>  type of the values along the axis
+ * @author grimm
+ */
+public abstract class TemporalAxis<T extends Comparable<? super T>>
+extends Axis<T>
+{
+    private final Path minorTickPath  = new Path();
+    private final PathElementPool minorTickPool = new PathElementPool(minorTickPath);
+
+    List<T> minorTickMarkValues = new ArrayList<>();
+    private boolean minorTickMarksDirty = true;
+
+    // display position = epochValue * displayScale + displayOffset
+    private double displayScale;
+    private double displayOffset;
+    private boolean displayMappingDirty = true;
+
+    private boolean settingBounds;
+    private boolean boundsChanged;
+    private T oldLowerBound;
+    private T oldUpperBound;
+    private final List<BoundsListener<T>> boundsListeners = new ArrayList<>();
+
+    protected TemporalAxis()
+    {
+        minorTickPath.getStyleClass().add("axis-minor-tick-mark");
+        getChildren().add(minorTickPath);
+        setTickMarkVisible(false);  // hide major Ticks
+
+        InvalidationListener mappingListener = obs -> displayMappingDirty = true;
+        widthProperty().addListener(mappingListener);
+        heightProperty().addListener(mappingListener);
+        sideProperty().addListener(mappingListener);
+
+        this.getChildrenUnmodifiable().addListener((ListChangeListener<Node>) c -> {
+                while (c.next()) {
+                    for (Node mark : c.getAddedSubList()) {
+                        if (mark instanceof Text)
+                            mark.getStyleClass().add("tick-label");
+                    }
+                }
+            });
+    }
+
+    /**
+     * Convert a value into the numeric representation of the axis.
+     *
+     * @param value   value along the axis
+     * @return        time units since the epoch
+     */
+    protected abstract long toEpochValue(T value);
+
+    /**
+     * Convert the numeric representation back into a value.
+     *
+     * @param epochValue   time units since the epoch
+     * @return             value along the axis
+     */
+    protected abstract T ofEpochValue(long epochValue);
+
+    /**
+     * Calculate the minor tick marks for the current major tick marks.
+     *
+     * @return  values of the minor tick marks
+     */
+    protected abstract List<T> calculateMinorTickValues();
+
+    /**
+     * @return  false if no minor tick marks should be drawn for the current tick interval
+     */
+    protected boolean hasMinorTickMarks()
+    {
+        return true;
+    }
+
+    /**
+     * Unmodifiable observable list of minor tick marks, each tick mark directly represents a
+     * tick mark on this axis. This is updated whenever the displayed tickmarks changes.
+     *
+     * This method allows the Chart to draw the grid also for minor Tickmarks.
+     *
+     * @return Unmodifiable observable list of minor TickMarks on this axis
+     */
+    public List<T> getMinorTickMarks()
+    {
+        return Collections.unmodifiableList(minorTickMarkValues);
+    }
+
+    private ObjectProperty<T> lowerBound =
+            new SimpleObjectProperty<T>(TemporalAxis.this, "lowerBound") {
+                @Override
+                protected void invalidated() {
+                    boundsInvalidated();
+                }
+            };
+    public final T getLowerBound() { return lowerBound.get(); }
+    public final void setLowerBound(T value) {lowerBound.set(value); }
+    public final ObjectProperty<T> lowerBoundProperty() { return lowerBound; }
+
+    private ObjectProperty<T> upperBound =
+            new SimpleObjectProperty<T>(TemporalAxis.this, "upperBound") {
+                @Override
+                protected void invalidated() {
+                    boundsInvalidated();
+                }
+            };
+    public final T getUpperBound() { return upperBound.get(); }
+    public final void setUpperBound(T value) {upperBound.set(value); }
+    public final ObjectProperty<T> upperBoundProperty() { return upperBound; }
+
+    private void boundsInvalidated()
+    {
+        displayMappingDirty = true;
+        boundsChanged = true;
+        if (settingBounds)
+            return;
+
+        if (!isAutoRanging()) {
+            invalidateRange();
+            requestAxisLayout();
+        }
+        fireBoundsChanged();
+    }
+
+    /**
+     * Listener for changes of the bounds. In contrast to listeners of the bound properties it
+     * is called once both bounds have their new value, also if {@link #setBounds} changes both.
+     *
+     * @param <T>  type of the values along the axis
+     */
+    @FunctionalInterface
+    public interface BoundsListener<T>
+    {
+        /**
+         * Called after one or both bounds changed.
+         *
+         * @param oldLower   lower bound before the change
+         * @param oldUpper   upper bound before the change
+         * @param lower      new lower bound
+         * @param upper      new upper bound
+         */
+        void boundsChanged(T oldLower, T oldUpper, T lower, T upper);
+    }
+
+    public void addBoundsListener(BoundsListener<T> listener)
+    {
+        boundsListeners.add(listener);
+    }
+
+    public void removeBoundsListener(BoundsListener<T> listener)
+    {
+        boundsListeners.remove(listener);
+    }
+
+    private void fireBoundsChanged()
+    {
+        T oldLower = oldLowerBound;
+        T oldUpper = oldUpperBound;
+        T lower = lowerBound.get();
+        T upper = upperBound.get();
+        if (Objects.equals(oldLower, lower) && Objects.equals(oldUpper, upper))
+            return;
+
+        // a listener could change the bounds again, the next call has to start from here
+        oldLowerBound = lower;
+        oldUpperBound = upper;
+        for (BoundsListener<T> listener : List.copyOf(boundsListeners))
+            listener.boundsChanged(oldLower, oldUpper, lower, upper);
+    }
+
+    /**
+     * Set both bounds at once. The axis layout is requested only once, and only if one of the
+     * bounds really changed. The {@link BoundsListener}s are called after both bounds are set.
+     *
+     * @param lower   new lower bound
+     * @param upper   new upper bound
+     */
+    public void setBounds(T lower, T upper)
+    {
+        // listeners of the bounds could call this method again
+        boolean nested = settingBounds;
+        if (!nested)
+            boundsChanged = false;
+
+        // the properties compare by reference, an equal value must not invalidate them
+        settingBounds = true;
+        try {
+            if (!Objects.equals(lowerBound.get(), lower))
+                lowerBound.set(lower);
+            if (!Objects.equals(upperBound.get(), upper))
+                upperBound.set(upper);
+        } finally {
+            settingBounds = nested;
+        }
+
+        if (!nested && boundsChanged) {
+            if (!isAutoRanging()) {
+                invalidateRange();
+                requestAxisLayout();
+            }
+            fireBoundsChanged();
+        }
+    }
+
+    private DoubleProperty minorTickLength =
+            new SimpleDoubleProperty(TemporalAxis.this, "minorTickLength", 8) {
+                @Override
+                protected void invalidated() {
+                    requestAxisLayout();
+                }
+    };
+    public final double getMinorTickLength() { return minorTickLength.get(); }
+    public final void setMinorTickLength(double value) { minorTickLength.set(value); }
+    public final DoubleProperty minorTickLengthProperty() { return minorTickLength; }
+
+    /** @inheritDoc */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setRange(Object range, boolean animate)
+    {
+        Object[] newRange = (Object[]) range;
+        setBounds((T) newRange[0], (T) newRange[1]);
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected Object getRange()
+    {
+        return new Object[]{lowerBound.get(), upperBound.get()};
+    }
+
+    /** @inheritDoc */
+    @Override
+    public double getZeroPosition()
+    {
+        return 0d;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public double getDisplayPosition(T value)
+    {
+        return toDisplayPosition(toEpochValue(value));
+    }
+
+    /**
+     * Get the display position of a value given in its numeric representation (epoch days or
+     * epoch seconds). This is the primitive variant of {@link #getDisplayPosition(Comparable)}.
+     *
+     * @param epochValue   time units since the epoch
+     * @return             display position along this axis
+     */
+    public double toDisplayPosition(long epochValue)
+    {
+        if (displayMappingDirty)
+            updateDisplayMapping();
+
+        return epochValue * displayScale + displayOffset;
+    }
+
+    /**
+     * Convert a whole array of values in their numeric representation into display positions.
+     * Renderers of large series use this to map all their data points at once.
+     *
+     * @param epochValues  time units since the epoch
+     * @param out          array receiving the display positions, at least as long as epochValues
+     */
+    public void toDisplayPositions(long[] epochValues, double[] out)
+    {
+        toDisplayPositions(epochValues, 0, epochValues.length, out);
+    }
+
+    /**
+     * Convert a part of an array of values in their numeric representation into display
+     * positions. The position of <code>epochValues[from + n]</code> is stored in
+     * <code>out[n]</code>.
+     *
+     * @param epochValues  time units since the epoch
+     * @param from         index of the first value (inclusive)
+     * @param to           index of the last value (exclusive)
+     * @param out          array receiving the display positions, at least to - from long
+     */
+    public void toDisplayPositions(long[] epochValues, int from, int to, double[] out)
+    {
+        Objects.checkFromToIndex(from, to, epochValues.length);
+        if (out.length < to - from)
+            throw new IllegalArgumentException("Output array is too small.");
+
+        if (displayMappingDirty)
+            updateDisplayMapping();
+
+        final double scale = displayScale;
+        final double offset = displayOffset;
+        for (int n=from; n < to; n++)
+            out[n - from] = epochValues[n] * scale + offset;
+    }
+
+    /**
+     * The int variant of {@link #toDisplayPositions(long[], int, int, double[])}, e.g. for
+     * epoch days.
+     *
+     * @param epochValues  time units since the epoch
+     * @param from         index of the first value (inclusive)
+     * @param to           index of the last value (exclusive)
+     * @param out          array receiving the display positions, at least to - from long
+     */
+    public void toDisplayPositions(int[] epochValues, int from, int to, double[] out)
+    {
+        Objects.checkFromToIndex(from, to, epochValues.length);
+        if (out.length < to - from)
+            throw new IllegalArgumentException("Output array is too small.");
+
+        if (displayMappingDirty)
+            updateDisplayMapping();
+
+        final double scale = displayScale;
+        final double offset = displayOffset;
+        for (int n=from; n < to; n++)
+            out[n - from] = epochValues[n] * scale + offset;
+    }
+
+    /*
+     * The display position is a linear function of the epoch value. Its factors only change if
+     * the range, the size or the side of the axis change, so they are calculated once here.
+     * An empty range or an axis without size maps everything to the zero position.
+     */
+    private void updateDisplayMapping()
+    {
+        displayMappingDirty = false;
+
+        double lower = toEpochValue(lowerBound.get());
+        double visible = toEpochValue(upperBound.get()) - lower;
+
+        if(effectiveSide().isVertical()) {
+            double heightInPixel = getHeight() - getZeroPosition();
+            displayScale = visible > 0 ? -heightInPixel / visible : 0;
+            displayOffset = heightInPixel + getZeroPosition() - lower * displayScale;
+
+        } else {
+            double widthInPixel = getWidth() - getZeroPosition();
+            displayScale = visible > 0 ? widthInPixel / visible : 0;
+            displayOffset = getZeroPosition() - lower * displayScale;
+        }
+    }
+
+    /**
+     * @inheritDoc
+     * The lower bound is returned as long as the axis has no size or an empty range.
+     */
+    @Override
+    public T getValueForDisplay(double displayPosition)
+    {
+        if (displayMappingDirty)
+            updateDisplayMapping();
+
+        if (displayScale == 0)
+            return lowerBound.get();
+
+        return ofEpochValue(Math.round((displayPosition - displayOffset) / displayScale));
+    }
+
+    /** @inheritDoc */
+    @Override
+    public boolean isValueOnAxis(T value)
+    {
+        return lowerBound.get().compareTo(value) <= 0 && upperBound.get().compareTo(value) >= 0;
+    }
+
+    /** @inheritDoc */
+    @Override
+    public double toNumericValue(T value)
+    {
+        return toEpochValue(value);
+    }
+
+    /** @inheritDoc */
+    @Override
+    public T toRealValue(double value)
+    {
+        return ofEpochValue((long) value);
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected void tickMarksUpdated()
+    {
+        super.tickMarksUpdated();
+
+        minorTickMarkValues = calculateMinorTickValues();
+        minorTickMarksDirty = true;
+    }
+
+    /** @inheritDoc */
+    @Override
+    protected void layoutChildren()
+    {
+        super.layoutChildren();
+
+        final Side side = effectiveSide();
+        final double length = side.isVertical() ? getHeight() :getWidth() ;
+        if (minorTickMarksDirty) {
+            minorTickMarksDirty = false;
+            updateMinorTickPath(side, length);
+        }
+    }
+
+    /*
+     * Like the stock Axis, an axis without a side is laid out as a bottom axis.
+     */
+    private Side effectiveSide()
+    {
+        Side side = getSide();
+        return side == null ? Side.BOTTOM : side;
+    }
+
+    private void updateMinorTickPath(Side side, double length)
+    {
+        double neededLength = getTickMarks().size()*2;
+
+        // Update minor tickmarks, the path elements of the last layout are reused
+        minorTickPool.begin();
+
+        // Don't draw minor tick marks if there isn't enough space for them!
+        double tickLength = Math.max(0, getMinorTickLength());
+        if (hasMinorTickMarks() && tickLength > 0 && length > neededLength) {
+            // snap minorTickPath to pixels
+            minorTickPath.setLayoutX(Side.LEFT.equals(side) ? -0.5 : 0.5);
+            minorTickPath.setLayoutY(Side.TOP.equals(side) ? -0.5 : 0.5);
+
+            for (T value : minorTickMarkValues) {
+                double pos = toDisplayPosition(toEpochValue(value));
+                if (pos < 0 || pos > length)
+                    continue;
+
+                switch (side) {
+                    case LEFT   -> minorTickPool.addLine(getWidth() - tickLength, pos, getWidth() - 1, pos);
+                    case RIGHT  -> minorTickPool.addLine(1, pos, tickLength, pos);
+                    case TOP    -> minorTickPool.addLine(pos, getHeight() - 1, pos, getHeight() - tickLength);
+                    default     -> minorTickPool.addLine(pos, 1.0F, pos, tickLength);
+                }
+            }
+        }
+        minorTickPool.end();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import hws.gui.charts.skins.RangeControlSet;
+import java.util.List;
+import javafx.beans.value.ChangeListener;
+
+/**
+ * RangeConverter for a {@link TemporalAxis}. All values are handled as the epoch values of the
+ * axis (see {@link TemporalAxis#toEpochValue(java.lang.Comparable)}), so range calculations
+ * are simple primitive arithmetic. The subclasses only provide the default range and the
+ * overloads to pass their data in the unit of the axis.
+ *
+ * @author grimm
+ * @param <T>  temporal type of the axis
+ */
+public abstract class TemporalRangeConverter<T extends Comparable<? super T>>
+extends RangeConverter<T>
+{
+    private TemporalAxis<T> axis;
+    private long minRange;      // epoch values
+    private long maxRange;
+
+    /**
+     * Constructor of the TemporalRangeConverter. The default range is used if the axis has no
+     * bounds yet.
+     *
+     * @param axis          the maintained axis
+     * @param defaultLower  lower bound of the default range
+     * @param defaultUpper  upper bound of the default range
+     */
+    protected TemporalRangeConverter(TemporalAxis<T> axis, T defaultLower, T defaultUpper)
+    {
+        super(axis);
+        this.axis = axis;
+
+        if (axis.getLowerBound() != null && axis.getUpperBound() != null) {
+            minRange = axis.toEpochValue(axis.getLowerBound());
+            maxRange = axis.toEpochValue(axis.getUpperBound());
+        } else {
+            minRange = axis.toEpochValue(defaultLower);
+            maxRange = axis.toEpochValue(defaultUpper);
+        }
+
+        if (axis.isAutoRanging()) {
+            axis.setAutoRanging(false);
+            axis.setBounds(axis.ofEpochValue(minRange), axis.ofEpochValue(maxRange));
+        }
+
+        axis.addBoundsListener(axisBoundslistener);
+    }
+
+    @Override
+    public void updateData(List<T> list)
+    {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        for (T value : list) {
+            long epochValue = axis.toEpochValue(value);
+            if (epochValue < min) min = epochValue;
+            if (epochValue > max) max = epochValue;
+        }
+        setDataRange(list.isEmpty(), min, max);
+    }
+
+    /**
+     * Set the range of the data in epoch values. If the current bounds of the axis overlap
+     * the data, the range is widened to them. Without data the current bounds are the range.
+     *
+     * @param empty  true if there is no data
+     * @param min    smallest epoch value of the data
+     * @param max    largest epoch value of the data
+     */
+    protected void setDataRange(boolean empty, long min, long max)
+    {
+        long lowerBound = axis.toEpochValue(axis.getLowerBound());
+        long upperBound = axis.toEpochValue(axis.getUpperBound());
+
+        if (empty) {
+            minRange = lowerBound;
+            maxRange = upperBound;
+        } else {
+            minRange = min;
+            maxRange = max;
+        }
+
+        if (upperBound > minRange && lowerBound < maxRange) {
+            if (lowerBound < minRange)  minRange = lowerBound;
+            if (upperBound > maxRange)  maxRange = upperBound;
+        }
+
+        update(() -> setBounds(minRange, maxRange));
+    }
+
+    // set both bounds of the axis, clipped to the data range
+    private void setBounds(long lower, long upper)
+    {
+        lower = Math.max(minRange, Math.min(lower, maxRange));
+        upper = Math.max(minRange, Math.min(upper, maxRange));
+        axis.setBounds(axis.ofEpochValue(lower), axis.ofEpochValue(upper));
+    }
+
+    @Override
+    protected void synchronizeControlSets()
+    {
+        double lower = valueToPercent(axis.getLowerBound());
+        double upper = valueToPercent(axis.getUpperBound());
+        double rangeLength = calcRangeLength();
+
+        for (RangeControlSet item : listControlSets)
+            item.setLimits(lower, upper, rangeLength);
+    }
+
+    /**
+     * Establish the binding of the converter. It links the input to the output and vice versa.
+     *
+     * @param rangeCTRL  RangeControlSet instance with the controls for one axis
+     */
+    @Override
+    public void link(RangeControlSet rangeCTRL)
+    {
+        registerControlSet(rangeCTRL);
+
+        // set initial values
+        if (axis.getUpperBound() != null)
+            rangeCTRL.setUpperLimit(valueToPercent(axis.getUpperBound()));
+
+        if (axis.getLowerBound() != null)
+            rangeCTRL.setLowerLimit(valueToPercent(axis.getLowerBound()));
+
+        // set initial range length and position
+        rangeCTRL.setRangeLengthAndPosition(calcRangeLength());
+
+        ChangeListener<Number> upperRangeLimitlistener = (obs, oVal, nVal) -> {
+                if (areEqual(oVal, nVal) || isUpdating()) return;
+
+                RangeTrace.enter(RangeTrace.Event.UPPER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
+
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.UPPER_RANGE_LIMIT, () -> {
+                        long lower = axis.toEpochValue(axis.getLowerBound());
+                        long upper = percentToEpochValue(percent);
+                        setBounds(lower, Math.max(lower, upper));
+                    });
+
+                RangeTrace.exit();
+            };
+
+        ChangeListener<Number> lowerRangeLimitlistener = (obs, oVal, nVal) -> {
+                if (areEqual(oVal, nVal) || isUpdating()) return;
+
+                RangeTrace.enter(RangeTrace.Event.LOWER_RANGE_LIMIT, this, oVal.doubleValue(), nVal.doubleValue());
+
+                double percent = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.LOWER_RANGE_LIMIT, () -> {
+                        long lower = percentToEpochValue(percent);
+                        long upper = axis.toEpochValue(axis.getUpperBound());
+                        setBounds(Math.min(lower, upper), upper);
+                    });
+
+                RangeTrace.exit();
+            };
+
+        ChangeListener<Number> rangePositionlistener = (obs, oVal, nVal) -> {
+                if (areEqual(oVal, nVal) || isUpdating()) return;
+
+                RangeTrace.enter(RangeTrace.Event.RANGE_POSITION, this, oVal.doubleValue(), nVal.doubleValue());
+
+                // move both bounds at once and keep the visible span
+                double position = nVal.doubleValue();
+                requestUpdate(rangeCTRL, RangeTrace.Event.RANGE_POSITION, () -> {
+                        long visible = visibleSpan();
+                        long lower = percentToEpochValue(rangeCTRL.lowerLimitAt(position));
+                        lower = Math.max(minRange, Math.min(lower, maxRange - visible));
+                        setBounds(lower, lower + visible);
+                    });
+
+                RangeTrace.exit();
+            };
+
+        rangeCTRL.addUpperLimitListener(upperRangeLimitlistener);
+        rangeCTRL.addLowerLimitListener(lowerRangeLimitlistener);
+        rangeCTRL.addRangeListener(rangePositionlistener);
+    }
+
+    private long visibleSpan()
+    {
+        return axis.toEpochValue(axis.getUpperBound()) - axis.toEpochValue(axis.getLowerBound());
+    }
+
+    private double calcRangeLength()
+    {
+        return 100.0 * visibleSpan() / (maxRange - minRange);
+    }
+
+    private double valueToPercent(T value)
+    {
+        return epochValueToPercent(axis.toEpochValue(value));
+    }
+
+    private double epochValueToPercent(long epochValue)
+    {
+        long range = maxRange - minRange;
+        return range == 0 ? 0 : (double)(epochValue - minRange) / range  * 100;
+    }
+
+    private long percentToEpochValue(double percent)
+    {
+        long range = maxRange - minRange;
+        return Math.round(percent/100 * range) + minRange;
+    }
+
+    /****************************************************************************************/
+    /*                              Listener definitions                                    */
+    /****************************************************************************************/
+
+    /*
+     * Called once after both bounds of the axis are set, so a jump of the whole range isn't
+     * clamped against the previous value of the other bound. An inverted range is collapsed
+     * onto the bound which was set last.
+     */
+    private final TemporalAxis.BoundsListener<T> axisBoundslistener = (oldLower, oldUpper, nLower, nUpper) -> {
+            if (isUpdating()) return;
+
+            boolean lowerChanged = !nLower.equals(oldLower);
+            if (lowerChanged)
+                RangeTrace.enter(RangeTrace.Event.LOWER_AXIS_BOUND, this,
+                        oldLower == null ? Double.NaN : axis.toEpochValue(oldLower), axis.toEpochValue(nLower));
+            else
+                RangeTrace.enter(RangeTrace.Event.UPPER_AXIS_BOUND, this,
+                        oldUpper == null ? Double.NaN : axis.toEpochValue(oldUpper), axis.toEpochValue(nUpper));
+
+            long lower = axis.toEpochValue(nLower);
+            long upper = axis.toEpochValue(nUpper);
+            if (lower > upper) {
+                if (lowerChanged && nUpper.equals(oldUpper))
+                    lower = upper;
+                else
+                    upper = lower;
+            }
+            long clampedLower = lower;
+            long clampedUpper = upper;
+            update(() -> setBounds(clampedLower, clampedUpper));
+
+            RangeTrace.exit();
+        };
+}
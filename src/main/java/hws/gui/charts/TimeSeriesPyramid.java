@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import hws.gui.charts.LocalDateAxis.AxisTick;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * Precomputed levels of detail of a {@link TimeSeriesSource}. There is one level for each
+ * interval of the {@link LocalDateAxis} tick marks (weeks, months, quarters, years, ...).
+ * A level keeps the smallest and the largest sample of each interval, so peaks survive on all
+ * levels.<p>
+ *
+ * The levels don't copy any values, they only hold the indices of the selected samples of the
+ * base source. The month level is built from the base, the coarser levels from the month level,
+ * because each quarter, year and decade consists of whole months. Weeks are built from the base
+ * as well.<p>
+ *
+ * For a visible range of the axis {@link #selectLevel(long, int)} picks the coarsest level that
+ * still has at least one interval per pixel. The work of a layout pass then depends on the number
+ * of visible intervals only, not on the length of the history.
+ *
+ * @author grimm
+ */
+public class TimeSeriesPyramid
+{
+    private static final AxisTick[] TICKS = AxisTick.values();
+
+    private final Level base;
+    private final EnumMap<AxisTick, Level> levels = new EnumMap<>(AxisTick.class);
+
+    public TimeSeriesPyramid(TimeSeriesSource source)
+    {
+        base = new Level(source, null);
+        levels.put(AxisTick.DAYS, base);
+        levels.put(AxisTick.WEEKS, build(base, AxisTick.WEEKS));
+
+        Level finer = base;
+        for (AxisTick tick : TICKS) {
+            if (tick.compareTo(AxisTick.MONTHS) >= 0) {
+                finer = build(finer, tick);
+                levels.put(tick, finer);
+            }
+        }
+    }
+
+    /**
+     * @return  the full resolution data
+     */
+    public TimeSeriesSource getBase()
+    {
+        return base.source;
+    }
+
+    /**
+     * @param tick  interval of the level
+     * @return      level with the smallest and the largest sample per interval
+     */
+    Level getLevel(AxisTick tick)
+    {
+        return levels.get(tick);
+    }
+
+    /**
+     * Select the coarsest level with at least one interval per pixel.
+     *
+     * @param spanInDays  visible range of the axis
+     * @param width       width of the axis in pixels
+     * @return            level to draw the range from
+     */
+    Level selectLevel(long spanInDays, int width)
+    {
+        for (int n = TICKS.length - 1; n > 0; n--) {
+            if (TICKS[n].getLengthInDays() * width <= spanInDays)
+                return levels.get(TICKS[n]);
+        }
+        return base;
+    }
+
+    // keep the smallest and the largest sample of each interval of the finer level
+    private static Level build(Level finer, AxisTick tick)
+    {
+        int size = finer.size();
+        int[] indices = new int[size];
+        int count = 0;
+
+        int i = 0;
+        while (i < size) {
+            LocalDate date = LocalDate.ofEpochDay(finer.getEpochDay(i));
+            long endOfInterval = tick.normalizeToEnd(date).toEpochDay();
+            int minIndex = i;
+            int maxIndex = i;
+
+            for (i++; i < size && finer.getEpochDay(i) <= endOfInterval; i++) {
+                double value = finer.getValue(i);
+                if (value < finer.getValue(minIndex)) minIndex = i;
+                if (value > finer.getValue(maxIndex)) maxIndex = i;
+            }
+
+            indices[count++] = finer.baseIndex(Math.min(minIndex, maxIndex));
+            if (minIndex != maxIndex)
+                indices[count++] = finer.baseIndex(Math.max(minIndex, maxIndex));
+        }
+
+        return new Level(finer.source, Arrays.copyOf(indices, count));
+    }
+
+    /**
+     * A level of the pyramid. It is a TimeSeriesSource of its own, which maps its samples to
+     * the samples of the base source.
+     */
+    static final class Level
+    implements TimeSeriesSource
+    {
+        private final TimeSeriesSource source;
+        private final int[] indices;       // null: all samples of the source
+
+        Level(TimeSeriesSource source, int[] indices)
+        {
+            this.source = source;
+            this.indices = indices;
+        }
+
+        @Override
+        public int size()
+        {
+            return indices == null ? source.size() : indices.length;
+        }
+
+        @Override
+        public int getEpochDay(int index)
+        {
+            return source.getEpochDay(baseIndex(index));
+        }
+
+        @Override
+        public double getValue(int index)
+        {
+            return source.getValue(baseIndex(index));
+        }
+
+        /**
+         * @param index  index of a sample of this level
+         * @return       index of the same sample in the base source
+         */
+        int baseIndex(int index)
+        {
+            return indices == null ? index : indices[index];
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.util.Objects;
+
+/**
+ * Read access to a time series that is kept outside of the chart. The samples are sorted by
+ * date in ascending order. Dates are given as epoch days (see
+ * {@link java.time.LocalDate#toEpochDay()}), values as primitive doubles, so a source could be
+ * backed by plain arrays without any boxing. Values are never NaN, a missing sample is left out.
+ * <p>
+ * A source may change over time. Its {@link #getVersion() version} tells users which keep data
+ * derived from it (e.g. a {@link TimeSeriesPyramid}) that they have to rebuild it.
+ *
+ * @author grimm
+ */
+public interface TimeSeriesSource
+{
+    /**
+     * @return  number of samples
+     */
+    public int size();
+
+    /**
+     * @param index  index of the sample
+     * @return       date of the sample as epoch day
+     */
+    public int getEpochDay(int index);
+
+    /**
+     * @param index  index of the sample
+     * @return       value of the sample
+     */
+    public double getValue(int index);
+
+    /**
+     * The version changes whenever samples are added, removed or changed. Sources which never
+     * change keep the default of 0.
+     *
+     * @return  version of the samples
+     */
+    public default int getVersion()
+    {
+        return 0;
+    }
+
+    /**
+     * Find the first sample at or after a date with a binary search.
+     *
+     * @param epochDay  date as epoch day
+     * @return          index of the first sample not before the date, size() if there is none
+     */
+    public default int indexOf(long epochDay)
+    {
+        int low = 0;
+        int high = size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getEpochDay(mid) < epochDay)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Create a source backed by two arrays. The arrays are not copied.
+     *
+     * @param epochDays  dates as epoch days in ascending order
+     * @param values     values of the samples
+     * @return           new TimeSeriesSource
+     */
+    public static TimeSeriesSource of(int[] epochDays, double[] values)
+    {
+        Objects.requireNonNull(epochDays);
+        Objects.requireNonNull(values);
+        if (epochDays.length != values.length)
+            throw new IllegalArgumentException("Arrays differ in length");
+
+        return new TimeSeriesSource()
+        {
+            @Override
+            public int size() { return epochDays.length; }
+
+            @Override
+            public int getEpochDay(int index) { return epochDays[index]; }
+
+            @Override
+            public double getValue(int index) { return values[index]; }
+        };
+    }
+}
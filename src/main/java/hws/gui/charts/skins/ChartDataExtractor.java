@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import hws.gui.charts.DataExtra;
+import hws.gui.charts.RangeCollector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javafx.scene.chart.XYChart;
+
+/**
+ * Walks through all series of a chart and feeds the x- and y-values of every data item into
+ * a {@link RangeCollector} for each axis. Items carrying a {@link DataExtra} object contribute
+ * the values delivered by the extra object instead of their own ones.<p>
+ *
+ * The collectors decide how the values are stored, so the extraction is linear in the number
+ * of data items regardless of the axis type.
+ *
+ * @author grimm
+ */
+public class ChartDataExtractor
+{
+    private ChartDataExtractor() { }
+
+    /**
+     * Extract the data values of all series.
+     *
+     * @param <X>         Datatype of the x-axis
+     * @param <Y>         Datatype of the y-axis
+     * @param list        series of the chart, may be null
+     * @param xCollector  collector for the x-values
+     * @param yCollector  collector for the y-values
+     */
+    public static <X,Y> void extract(List<? extends XYChart.Series<X,Y>> list,
+                                     RangeCollector<X> xCollector, RangeCollector<Y> yCollector)
+    {
+        if (list == null)
+            return;
+
+        for (XYChart.Series<X,Y> series : list)
+            extract(series, xCollector, yCollector);
+    }
+
+    /**
+     * Extract the data values of a single series.
+     *
+     * @param <X>         Datatype of the x-axis
+     * @param <Y>         Datatype of the y-axis
+     * @param series      series to extract
+     * @param xCollector  collector for the x-values
+     * @param yCollector  collector for the y-values
+     */
+    public static <X,Y> void extract(XYChart.Series<X,Y> series,
+                                     RangeCollector<X> xCollector, RangeCollector<Y> yCollector)
+    {
+        for (XYChart.Data<X,Y> item : series.getData())
+            forEachValue(item, xCollector::add, yCollector::add);
+    }
+
+    /**
+     * Hand the values of a single data item to the given actions. For a plain item this is
+     * its x- and y-value, for an item with a {@link DataExtra} object these are the values
+     * the extra object delivers.
+     *
+     * @param <X>      Datatype of the x-axis
+     * @param <Y>      Datatype of the y-axis
+     * @param item     data item of a chart series
+     * @param xAction  action called for each x-value
+     * @param yAction  action called for each y-value
+     */
+    @SuppressWarnings("unchecked")
+    public static <X,Y> void forEachValue(XYChart.Data<X,Y> item, Consumer<X> xAction, Consumer<Y> yAction)
+    {
+        Object obj = item.getExtraValue();
+        if (obj instanceof DataExtra) {
+            DataExtra<X,Y> extra = (DataExtra<X,Y>) obj;
+
+            List<X> xExtraValues = new ArrayList<>();
+            List<Y> yExtraValues = new ArrayList<>();
+            extra.addToList_X(xExtraValues);
+            extra.addToList_Y(yExtraValues);
+            xExtraValues.forEach(xAction);
+            yExtraValues.forEach(yAction);
+        } else {
+            xAction.accept(item.getXValue());
+            yAction.accept(item.getYValue());
+        }
+    }
+}
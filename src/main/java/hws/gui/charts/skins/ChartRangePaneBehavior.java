@@ -27,17 +27,15 @@ package hws.gui.charts.skins;
 
 import hws.gui.charts.CategoryRangeConverter;
 import hws.gui.charts.ChartRangePane;
-import hws.gui.charts.DataExtra;
 import hws.gui.charts.LocalDateAxis;
 import hws.gui.charts.LocalDateRangeConverter;
+import hws.gui.charts.LocalDateTimeAxis;
+import hws.gui.charts.LocalDateTimeRangeConverter;
 import hws.gui.charts.NumberRangeConverter;
 import hws.gui.charts.RangeConverter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
-import javafx.collections.ObservableList;
 import javafx.scene.chart.Axis;
 import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.NumberAxis;
@@ -63,6 +61,11 @@ public class ChartRangePaneBehavior
     @SuppressWarnings("rawtypes")
     private RangeConverter rangeConverter_Y;
     private final ArrayList<RangeControlSet> rangeControlSetsVertical = new ArrayList<>();;
+
+    @SuppressWarnings("rawtypes")
+    private RangeTracker rangeTracker;
+
+    private final PulseCoalescer coalescer = new PulseCoalescer();
     
     /***************************************************************************
      *                                                                         *
@@ -75,28 +78,29 @@ public class ChartRangePaneBehavior
         this.pane = pane;
 
         createAxisConverter();
-        extractChartDataValues(getChart().getData());
+        trackChartData(getChart());
         pane.contentProperty().addListener(contentListener);
-        getChart().getData().addListener(dataListener);
+        pane.asyncDataExtractionProperty().addListener(asyncListener);
+        pane.coalesceRangeUpdatesProperty().addListener(coalesceListener);
     }
 
     public void dispose()
     {
-        getChart().getData().removeListener(dataListener);
+        pane.contentProperty().removeListener(contentListener);
+        pane.asyncDataExtractionProperty().removeListener(asyncListener);
+        pane.coalesceRangeUpdatesProperty().removeListener(coalesceListener);
+        coalescer.cancel();
+        rangeTracker.detach();
         for (RangeControlSet obj : rangeControlSetsHorizontal)
             obj.removeAllListeners();
         for (RangeControlSet obj : rangeControlSetsVertical)
             obj.removeAllListeners();
     }
 
-    // extract the data from a chart if it changes (adding new series, etc)
-    private final InvalidationListener dataListener = obs -> {
-                extractChartDataValues(getChart().getData());
-            };
-
     private final ChangeListener<XYChart<?,?>> contentListener = (obs, oContent, nContent) -> {
                 if (oContent != null) {
-                    oContent.getData().removeListener(dataListener);
+                    coalescer.cancel();
+                    rangeTracker.detach();
                     for (RangeControlSet obj : rangeControlSetsHorizontal)
                         obj.removeAllListeners();
                     for (RangeControlSet obj : rangeControlSetsVertical)
@@ -104,12 +108,21 @@ public class ChartRangePaneBehavior
                 }
                 
                 if (nContent != null) {
-                    nContent.getData().addListener(dataListener);
-                    extractChartDataValues(nContent.getData());
                     createAxisConverter();
+                    trackChartData(nContent);
                 }
             };
 
+    private final ChangeListener<Boolean> asyncListener = (obs, oVal, nVal) -> {
+                rangeTracker.setAsynchronous(nVal);
+            };
+
+    private final ChangeListener<Boolean> coalesceListener = (obs, oVal, nVal) -> {
+                // apply what is still pending before switching
+                coalescer.flush();
+                setCoalescer(nVal);
+            };
+
     public void setControlSetsHorizontal(RangeControlSet... controlSets)
     {
         rangeControlSetsHorizontal.clear();
@@ -134,6 +147,8 @@ public class ChartRangePaneBehavior
         Axis<?> xAxis = getChart().getXAxis();
         if (xAxis instanceof LocalDateAxis axis) {
             rangeConverter_X = new LocalDateRangeConverter(axis);
+        } else if (xAxis instanceof LocalDateTimeAxis axis) {
+            rangeConverter_X = new LocalDateTimeRangeConverter(axis);
         } else if (xAxis instanceof NumberAxis axis) {
             rangeConverter_X = new NumberRangeConverter(axis);
         } else if (xAxis instanceof CategoryAxis axis) {
@@ -144,43 +159,34 @@ public class ChartRangePaneBehavior
         Axis<?> yAxis = getChart().getYAxis();
         if (yAxis instanceof LocalDateAxis axis) {
             rangeConverter_Y = new LocalDateRangeConverter(axis);
+        } else if (yAxis instanceof LocalDateTimeAxis axis) {
+            rangeConverter_Y = new LocalDateTimeRangeConverter(axis);
         } else if (yAxis instanceof NumberAxis axis) {
             rangeConverter_Y = new NumberRangeConverter(axis);
         } else if (yAxis instanceof CategoryAxis axis) {
            rangeConverter_Y = new CategoryRangeConverter(axis);
         } else 
             throw new UnsupportedOperationException("Datatype for Y-Axis not supported");
+
+        setCoalescer(pane.isCoalesceRangeUpdates());
   }
 
-    @SuppressWarnings("unchecked")
-    private <X,Y> void extractChartDataValues( ObservableList<? extends XYChart.Series<X,Y>> list)
+    private void setCoalescer(boolean enabled)
     {
-        List<X> xDataValues = new ArrayList<>();
-        List<Y> yDataValues = new ArrayList<>();
-
-        for (int sIdx=0; sIdx < getSaveListSize(list); sIdx++) {
-            XYChart.Series<X,Y> series = list.get(sIdx);
-            for (XYChart.Data<X,Y> item : series.getData()) {
-                Object obj = item.getExtraValue();
-                if (obj != null && obj instanceof DataExtra) {
-                    DataExtra<X,Y> extra = (DataExtra<X,Y>) obj;
-                    extra.addToList_X(xDataValues);
-                    extra.addToList_Y(yDataValues);
-                } else {
-                    if (!xDataValues.contains(item.getXValue()))
-                        xDataValues.add(item.getXValue());
-                    if (!yDataValues.contains(item.getYValue()))
-                        yDataValues.add(item.getYValue());
-                }
-            }        
-        }
-        rangeConverter_X.updateData(xDataValues);
-        rangeConverter_Y.updateData(yDataValues);
+        rangeConverter_X.setCoalescer(enabled ? coalescer : null);
+        rangeConverter_Y.setCoalescer(enabled ? coalescer : null);
     }
 
-    private int getSaveListSize(List<?> data)
+    // keep the data range of the axis converters up to date (adding new series, etc)
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void trackChartData(XYChart<?,?> chart)
     {
-        return (data!=null) ? data.size() : 0;
+        if (rangeTracker != null)
+            rangeTracker.detach();
+
+        rangeTracker = new RangeTracker(rangeConverter_X, rangeConverter_Y);
+        rangeTracker.setAsynchronous(pane.isAsyncDataExtraction());
+        rangeTracker.attach(chart.getData());
     }
 
     private XYChart<?,?> getChart()
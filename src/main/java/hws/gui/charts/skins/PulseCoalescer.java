@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import javafx.animation.AnimationTimer;
+
+/**
+ * The PulseCoalescer defers actions to the next JavaFX pulse. Actions are submitted with a key.
+ * A pending action is replaced if another one with an equal key is submitted before the pulse,
+ * so only the latest value wins. At the pulse all pending actions run once in the order their
+ * keys were first submitted.<p>
+ *
+ * A ScrollBar drag fires several value changes within one frame. Each of them would set the
+ * axis bounds and force a full layout of the chart. With the PulseCoalescer the axis gets at
+ * most one change per frame.<p>
+ *
+ * The {@link AnimationTimer} only runs while actions are pending. It is stopped on the first
+ * pulse without any work. All methods must be called on the JavaFX Application Thread.
+ *
+ * @author grimm
+ */
+public class PulseCoalescer
+{
+    private final LinkedHashMap<Object, Runnable> pending = new LinkedHashMap<>();
+    private boolean running;
+
+    private final AnimationTimer timer = new AnimationTimer()
+    {
+        @Override
+        public void handle(long now)
+        {
+            if (pending.isEmpty()) {
+                stop();
+                running = false;
+            } else
+                flush();
+        }
+    };
+
+    /**
+     * Submit an action for the next pulse. An action pending with an equal key is replaced.
+     *
+     * @param key     identifies the value which is changed by the action
+     * @param action  action to run at the next pulse
+     */
+    public void submit(Object key, Runnable action)
+    {
+        pending.put(key, action);
+
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Run all pending actions immediately. Actions submitted by the actions themselves are
+     * kept for the next pulse.
+     */
+    public void flush()
+    {
+        if (pending.isEmpty())
+            return;
+
+        List<Runnable> actions = new ArrayList<>(pending.values());
+        pending.clear();
+
+        for (Runnable action : actions)
+            action.run();
+    }
+
+    /**
+     * Discard all pending actions and stop the timer.
+     */
+    public void cancel()
+    {
+        pending.clear();
+        timer.stop();
+        running = false;
+    }
+
+    /**
+     * @return  number of actions waiting for the next pulse
+     */
+    public int getPendingCount()
+    {
+        return pending.size();
+    }
+}
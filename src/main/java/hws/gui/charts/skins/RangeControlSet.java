@@ -16,6 +16,7 @@
  */
 package hws.gui.charts.skins;
 
+import hws.gui.charts.RangeTrace;
 import java.util.ArrayList;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.value.ChangeListener;
@@ -77,17 +78,17 @@ public class RangeControlSet
     
     public void removeAllListeners()
     {
-        System.out.println("  - Lower limit listeners " + lowerLimitListeners.size());
+        RangeTrace.event(RangeTrace.Event.REMOVE_LISTENERS, this,
+                lowerLimitListeners.size() + rangePositionListeners.size() + upperLimitListeners.size());
+
         for (ChangeListener<? super Number> listener : lowerLimitListeners)
             getLowerLimitProperty().removeListener(listener);
         lowerLimitListeners.clear();
         
-        System.out.println("  - Range Position listeners " + rangePositionListeners.size());
         for (ChangeListener<? super Number> listener : rangePositionListeners)
             getRangePositionProperty().removeListener(listener);
         rangePositionListeners. clear();
         
-        System.out.println("  - Upper limit listeners " + upperLimitListeners.size());
         for (ChangeListener<? super Number> listener : upperLimitListeners)
             getUpperLimitProperty().removeListener(listener);
         upperLimitListeners.clear();
@@ -157,10 +158,44 @@ public class RangeControlSet
         setRangePosition(position);
     }
 
+    /**
+     * Set both limits and the range thumb in one go.
+     *
+     * @param lower          lower limit in percent
+     * @param upper          upper limit in percent
+     * @param rangeLength    length of the thumb of the range ScrollBar
+     */
+    public void setLimits(double lower, double upper, double rangeLength)
+    {
+        setLowerLimit(lower);
+        setUpperLimit(upper);
+        setRangeLengthAndPosition(rangeLength);
+    }
+
+    /**
+     * @return  length of the thumb of the range ScrollBar
+     */
+    public double getRangeLength()
+    {
+        return range.getVisibleAmount();
+    }
+
+    /**
+     * Calculate the lower limit that belongs to a position of the range ScrollBar. The upper
+     * limit is this value plus {@link #getRangeLength()}.
+     *
+     * @param position   value of the range ScrollBar
+     * @return           lower limit in percent
+     */
+    public double lowerLimitAt(double position)
+    {
+        return (100.0 - getRangeLength())/100.0 * position;
+    }
+
     public void moveLimits(double position)
     {
-        double rangeLength = range.getVisibleAmount();
-        double lowLimit = (100.0 - rangeLength)/100.0 * position;
+        double rangeLength = getRangeLength();
+        double lowLimit = lowerLimitAt(position);
 
         setLowerLimit(lowLimit);             
         setUpperLimit(lowLimit + rangeLength);
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import hws.gui.charts.RangeCollector;
+import hws.gui.charts.RangeConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+/**
+ * The RangeTracker keeps the data range of a chart up to date without walking through all
+ * data items on every change. It listens to the series list of the chart and to the data list
+ * of each series and applies only the added and removed items to the
+ * {@link RangeCollector RangeCollectors} of both axes.<p>
+ *
+ * Appending a new reading to a series costs O(1). Only the removal of an extreme value forces
+ * the affected collectors to be rebuilt from scratch. The RangeConverters are only informed if
+ * the collected values really changed.<p>
+ *
+ * In {@link #setAsynchronous(boolean) asynchronous} mode a full rebuild only takes a snapshot
+ * of the data values on the JavaFX Application Thread. The range is computed on a worker thread,
+ * series by series in parallel, and handed back to the RangeConverters in a single
+ * {@link Platform#runLater(java.lang.Runnable)}. Changes of the data while a rebuild is running
+ * only mark the range dirty, the rebuild is started once more when the running one is
+ * finished. An explicit {@link #rebuild()} makes the running one stale, its worker stops early
+ * and its result is discarded.<p>
+ *
+ * Changes of the values of already added data items are not tracked.
+ *
+ * @param <X>    Datatype of the x-axis
+ * @param <Y>    Datatype of the y-axis
+ *
+ * @author grimm
+ */
+public class RangeTracker<X,Y>
+{
+    private final RangeConverter<X> converterX;
+    private final RangeConverter<Y> converterY;
+    private final RangeCollector<X> collectorX;
+    private final RangeCollector<Y> collectorY;
+
+    private ObservableList<? extends XYChart.Series<X,Y>> seriesList;
+
+    private int publishedVersionX = -1;
+    private int publishedVersionY = -1;
+    private boolean validX;
+    private boolean validY;
+
+    private final static int STALE_CHECK_INTERVAL = 4096;
+
+    private boolean asynchronous;
+    private volatile int generation;    // read by the workers to detect stale rebuilds
+    private CompletableFuture<Void> pendingRebuild;
+    private boolean dirty;
+
+    public RangeTracker(RangeConverter<X> converterX, RangeConverter<Y> converterY)
+    {
+        this.converterX = converterX;
+        this.converterY = converterY;
+        collectorX = converterX.createCollector();
+        collectorY = converterY.createCollector();
+    }
+
+    /**
+     * Start tracking the given series. A previously tracked list is released. The current
+     * data range is extracted immediately and handed over to the RangeConverters.
+     *
+     * @param list    series of the chart
+     */
+    public void attach(ObservableList<? extends XYChart.Series<X,Y>> list)
+    {
+        detach();
+
+        seriesList = list;
+        if (seriesList != null) {
+            seriesList.addListener(seriesListener);
+            for (XYChart.Series<X,Y> series : seriesList)
+                series.getData().addListener(dataListener);
+        }
+        rebuild();
+    }
+
+    /**
+     * Stop tracking. All listeners are removed from the chart data.
+     */
+    public void detach()
+    {
+        cancelRebuild();
+
+        if (seriesList != null) {
+            seriesList.removeListener(seriesListener);
+            for (XYChart.Series<X,Y> series : seriesList)
+                series.getData().removeListener(dataListener);
+            seriesList = null;
+        }
+    }
+
+    /**
+     * Walk through all data items again and recalculate the data range.
+     */
+    public void rebuild()
+    {
+        cancelRebuild();
+
+        if (asynchronous && seriesList != null) {
+            rebuildAsync();
+            return;
+        }
+
+        collectorX.clear();
+        collectorY.clear();
+        ChartDataExtractor.extract(seriesList, collectorX, collectorY);
+        validX = validY = true;
+
+        publish();
+    }
+
+    /**
+     * Calculate the data range of full rebuilds on a worker thread.
+     *
+     * @param value   true, to enable the asynchronous mode
+     */
+    public void setAsynchronous(boolean value)
+    {
+        asynchronous = value;
+    }
+
+    public boolean isAsynchronous()
+    {
+        return asynchronous;
+    }
+
+    /**
+     * @return  true, if an asynchronous rebuild has not been applied yet
+     */
+    public boolean isRebuildPending()
+    {
+        return pendingRebuild != null;
+    }
+
+    public RangeConverter<X> getConverterX()
+    {
+        return converterX;
+    }
+
+    public RangeConverter<Y> getConverterY()
+    {
+        return converterY;
+    }
+
+    private void addItem(XYChart.Data<X,Y> item)
+    {
+        if (isRebuildPending())
+            return;     // the running rebuild is restarted in applyRebuild()
+
+        ChartDataExtractor.forEachValue(item, collectorX::add, collectorY::add);
+    }
+
+    private void removeItem(XYChart.Data<X,Y> item)
+    {
+        if (isRebuildPending())
+            return;     // the running rebuild is restarted in applyRebuild()
+
+        ChartDataExtractor.forEachValue(item,
+                value -> validX &= collectorX.remove(value),
+                value -> validY &= collectorY.remove(value));
+    }
+
+    private void publish()
+    {
+        if (isRebuildPending()) {
+            // a new snapshot for each change would never let the rebuild finish
+            dirty = true;
+            return;
+        }
+
+        if (!validX || !validY) {
+            rebuild();
+            return;
+        }
+
+        if (collectorX.getVersion() != publishedVersionX) {
+            publishedVersionX = collectorX.getVersion();
+            converterX.updateData(collectorX);
+        }
+
+        if (collectorY.getVersion() != publishedVersionY) {
+            publishedVersionY = collectorY.getVersion();
+            converterY.updateData(collectorY);
+        }
+    }
+
+    /****************************************************************************************/
+    /*                              Asynchronous rebuild                                    */
+    /****************************************************************************************/
+
+    private record SeriesSnapshot<X,Y>(List<X> xValues, List<Y> yValues) { }
+
+    private record Result<X,Y>(RangeCollector<X> collectorX, RangeCollector<Y> collectorY) { }
+
+    private void rebuildAsync()
+    {
+        // the data lists must only be read on the JavaFX Application Thread
+        List<SeriesSnapshot<X,Y>> snapshots = new ArrayList<>(seriesList.size());
+        for (XYChart.Series<X,Y> series : seriesList) {
+            List<X> xValues = new ArrayList<>(series.getData().size());
+            List<Y> yValues = new ArrayList<>(series.getData().size());
+            for (XYChart.Data<X,Y> item : series.getData())
+                ChartDataExtractor.forEachValue(item, xValues::add, yValues::add);
+            snapshots.add(new SeriesSnapshot<>(xValues, yValues));
+        }
+
+        final int gen = generation;
+        pendingRebuild = CompletableFuture.supplyAsync(() -> collect(gen, snapshots))
+                .handle((result, ex) -> {
+                    Platform.runLater(() -> applyRebuild(gen, result, ex));
+                    return null;
+                });
+    }
+
+    private Result<X,Y> collect(int gen, List<SeriesSnapshot<X,Y>> snapshots)
+    {
+        Stream<SeriesSnapshot<X,Y>> stream = snapshots.size() > 1 ? snapshots.parallelStream()
+                                                                  : snapshots.stream();
+        return stream.map(snapshot -> {
+                    RangeCollector<X> xCollector = converterX.createCollector();
+                    RangeCollector<Y> yCollector = converterY.createCollector();
+                    addAll(gen, xCollector, snapshot.xValues());
+                    addAll(gen, yCollector, snapshot.yValues());
+                    return new Result<>(xCollector, yCollector);
+                })
+                .reduce((a, b) -> {
+                    a.collectorX().merge(b.collectorX());
+                    a.collectorY().merge(b.collectorY());
+                    return a;
+                })
+                .orElseGet(() -> new Result<>(converterX.createCollector(), converterY.createCollector()));
+    }
+
+    // add the values to the collector, stop as soon as the rebuild got stale
+    private <T> void addAll(int gen, RangeCollector<T> collector, List<T> values)
+    {
+        for (int n = 0; n < values.size(); n++) {
+            if (n % STALE_CHECK_INTERVAL == 0 && gen != generation)
+                throw new CancellationException("Stale rebuild");
+
+            collector.add(values.get(n));
+        }
+    }
+
+    private void applyRebuild(int gen, Result<X,Y> result, Throwable ex)
+    {
+        if (gen != generation)
+            return;     // stale, a newer rebuild has been requested meanwhile
+
+        pendingRebuild = null;
+        boolean restart = dirty;
+        dirty = false;
+
+        if (ex != null) {
+            // calculate again on this thread to get the error reported where it belongs
+            boolean async = asynchronous;
+            asynchronous = false;
+            rebuild();
+            asynchronous = async;
+            return;
+        }
+
+        collectorX.clear();
+        collectorY.clear();
+        collectorX.merge(result.collectorX());
+        collectorY.merge(result.collectorY());
+        validX = validY = true;
+
+        // hand out the range of the snapshot, then catch up with the changes made meanwhile
+        publish();
+        if (restart)
+            rebuild();
+    }
+
+    private void cancelRebuild()
+    {
+        // the worker of a pending rebuild notices the new generation and stops
+        generation++;
+        pendingRebuild = null;
+        dirty = false;
+    }
+
+    /****************************************************************************************/
+    /*                              Listener definitions                                    */
+    /****************************************************************************************/
+
+    private final ListChangeListener<XYChart.Data<X,Y>> dataListener = c -> {
+            while (c.next()) {
+                if (c.wasPermutated() || c.wasUpdated())
+                    continue;
+
+                for (XYChart.Data<X,Y> item : c.getRemoved())
+                    removeItem(item);
+                for (XYChart.Data<X,Y> item : c.getAddedSubList())
+                    addItem(item);
+            }
+            publish();
+        };
+
+    private final ListChangeListener<XYChart.Series<X,Y>> seriesListener = c -> {
+            while (c.next()) {
+                if (c.wasPermutated() || c.wasUpdated())
+                    continue;
+
+                for (XYChart.Series<X,Y> series : c.getRemoved()) {
+                    series.getData().removeListener(dataListener);
+                    for (XYChart.Data<X,Y> item : series.getData())
+                        removeItem(item);
+                }
+
+                for (XYChart.Series<X,Y> series : c.getAddedSubList()) {
+                    series.getData().addListener(dataListener);
+                    for (XYChart.Data<X,Y> item : series.getData())
+                        addItem(item);
+                }
+            }
+            publish();
+        };
+}
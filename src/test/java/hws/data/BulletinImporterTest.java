@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author grimm
+ */
+public class BulletinImporterTest
+{
+    private static final int DAY = (int) LocalDate.of(2023, 9, 15).toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    public BulletinImporterTest()
+    {
+    }
+
+    @Test
+    public void testCsv() throws IOException
+    {
+        String csv = """
+                Datum;Talsperre;F\u00fcllungsgrad [%];Inhalt [Mio. m\u00b3];Zufluss;Abgabe;Bemerkung
+                15.09.2023;Okertalsperre;61,2;29,4;0,31;1,2;
+                15.09.2023;"Sieber";80;1,03;;-;Revision
+                16.09.2023;Okertalsperre;61,0;29,3;0,29;1,2;
+                """;
+
+        ReservoirStore store = new ReservoirStore();
+        int rows = new BulletinImporter(store).importCsv(new StringReader(csv), null);
+        assertEquals(3, rows);
+        assertEquals(2, store.size());
+
+        Reservoir oker = store.get("Okertalsperre");
+        assertEquals(2, oker.size());
+        assertEquals(DAY, oker.getEpochDay(0));
+        assertEquals(DAY + 1, oker.getEpochDay(1));
+        assertEquals(61.2f, oker.getValue(0, Metric.FILL_LEVEL));
+        assertEquals(29.3f, oker.getValue(1, Metric.VOLUME));
+        assertEquals(0.29f, oker.getValue(1, Metric.INFLOW));
+
+        Reservoir sieber = store.get("Sieber");
+        assertEquals(1, sieber.size());
+        assertEquals(80f, sieber.getValue(0, Metric.FILL_LEVEL));
+        assertTrue(Float.isNaN(sieber.getValue(0, Metric.INFLOW)));
+        assertTrue(Float.isNaN(sieber.getValue(0, Metric.OUTFLOW)));
+    }
+
+    @Test
+    public void testJson() throws IOException
+    {
+        String json = """
+                { "source": {"name": "bulletin", "tags": ["a", "b"]},
+                  "readings": [
+                    {"date": "2023-09-15", "reservoir": "Okertalsperre", "fillLevel": 61.2, "volume": 29.4, "inflow": null},
+                    {"date": "2023-09-16T06:00:00", "reservoir": "Oker\\u0074alsperre", "fillLevel": 6.1e1, "outflow": "1,2"},
+                    {"date": "2024-02-29", "comment": {"x": [1, {"y": "}"}]}, "volume": -1}
+                  ]
+                }
+                """;
+
+        ReservoirStore store = new ReservoirStore();
+        int rows = new BulletinImporter(store).importJson(new StringReader(json), "Sieber");
+        assertEquals(3, rows);
+
+        Reservoir oker = store.get("Okertalsperre");
+        assertEquals(2, oker.size());
+        assertEquals(61.2f, oker.getValue(0, Metric.FILL_LEVEL));
+        assertTrue(Float.isNaN(oker.getValue(0, Metric.INFLOW)));
+        assertEquals(DAY + 1, oker.getEpochDay(1));
+        assertEquals(61f, oker.getValue(1, Metric.FILL_LEVEL));
+        assertEquals(1.2f, oker.getValue(1, Metric.OUTFLOW));
+
+        Reservoir sieber = store.get("Sieber");
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), sieber.getEpochDay(0));
+        assertEquals(-1f, sieber.getValue(0, Metric.VOLUME));
+    }
+
+    @Test
+    public void testImportFile() throws IOException
+    {
+        Path file = tempDir.resolve("Sieber.csv");
+        Files.writeString(file, "date,fill level,volume\n2023-09-15,80.5,1.03\n\n2023-09-14,80.7,1.04\n");
+
+        ReservoirStore store = new ReservoirStore();
+        assertEquals(2, new BulletinImporter(store).importFile(file));
+
+        Reservoir sieber = store.get("Sieber");
+        assertEquals(2, sieber.size());
+        assertEquals(DAY - 1, sieber.getEpochDay(0));
+        assertEquals(80.7f, sieber.getValue(0, Metric.FILL_LEVEL));
+        assertEquals(1.03f, sieber.getValue(1, Metric.VOLUME));
+
+        assertThrows(IOException.class, () -> new BulletinImporter(store).importFile(tempDir.resolve("Sieber.xml")));
+    }
+
+    @Test
+    public void testImportIntoArchive() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        try (ReservoirArchive archive = ReservoirArchive.create(tempDir.resolve("Oker.hws"), "Oker")) {
+            for (int n = 0; n < 3; n++)
+                archive.set(DAY + n, Metric.VOLUME, n);
+            store.add(archive);
+            BulletinImporter importer = new BulletinImporter(store);
+
+            // an earlier day fails the whole import, the archive is left unchanged
+            assertThrows(IOException.class, () ->
+                    importer.importCsv(new StringReader("Datum;Talsperre;Inhalt\n18.09.2023;Oker;3\n16.09.2023;Oker;9\n"), null));
+            assertEquals(3, archive.size());
+            assertEquals(1f, archive.getValue(1, Metric.VOLUME));
+
+            // the last day could be completed and later days are appended
+            assertEquals(2, importer.importJson(new StringReader(
+                    "[{\"date\": \"2023-09-17\", \"fillLevel\": 50}, {\"date\": \"2023-09-18\", \"volume\": 3}]"), "Oker"));
+            assertEquals(4, archive.size());
+            assertEquals(2f, archive.getValue(2, Metric.VOLUME));
+            assertEquals(50f, archive.getValue(2, Metric.FILL_LEVEL));
+            assertEquals(3f, archive.getValue(3, Metric.VOLUME));
+        }
+    }
+
+    @Test
+    public void testInvalidContent()
+    {
+        ReservoirStore store = new ReservoirStore();
+        BulletinImporter importer = new BulletinImporter(store);
+
+        IOException e = assertThrows(IOException.class, () ->
+                importer.importCsv(new StringReader("Datum;Talsperre;Inhalt\n15.09.2023;Oker;1\n31.09.2023;Oker;1\n"), null));
+        assertTrue(e.getMessage().startsWith("Line 3:"));
+
+        assertThrows(IOException.class, () ->
+                importer.importCsv(new StringReader("Datum;Talsperre;Inhalt\n15.09.2023;Oker;1x\n"), null));
+        assertThrows(IOException.class, () ->
+                importer.importCsv(new StringReader("Talsperre;Inhalt\nOker;1\n"), null));
+        assertThrows(IOException.class, () ->
+                importer.importJson(new StringReader("[{\"date\": \"2023-09-15\"}"), "Oker"));
+    }
+
+    @Test
+    public void testInvalidContent_StoreUnchanged() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        BulletinImporter importer = new BulletinImporter(store);
+        importer.importCsv(new StringReader("Datum;Talsperre;Inhalt\n15.09.2023;Oker;1\n"), null);
+        Reservoir oker = store.get("Oker");
+
+        // the valid rows in front of the malformed one are not written either
+        assertThrows(IOException.class, () -> importer.importCsv(new StringReader(
+                "Datum;Talsperre;Inhalt\n16.09.2023;Oker;2\n16.09.2023;Sieber;3\n17.09.2023;Oker;x\n"), null));
+        assertSame(oker, store.get("Oker"));
+        assertEquals(1, oker.size());
+        assertEquals(1f, oker.getValue(0, Metric.VOLUME));
+        assertNull(store.get("Sieber"));
+        assertEquals(1, store.size());
+
+        // the same for a table next to an archive which doesn't take the rows
+        try (ReservoirArchive archive = ReservoirArchive.create(tempDir.resolve("Sieber.hws"), "Sieber")) {
+            archive.set(DAY + 5, Metric.VOLUME, 5);
+            store.add(archive);
+
+            assertThrows(IOException.class, () -> importer.importCsv(new StringReader(
+                    "Datum;Talsperre;Inhalt\n16.09.2023;Oker;2\n16.09.2023;Sieber;3\n"), null));
+            assertEquals(1, oker.size());
+            assertEquals(1, archive.size());
+        }
+    }
+
+    @Test
+    public void testToEpochDay()
+    {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(17))
+            assertEquals(date.toEpochDay(), BulletinImporter.toEpochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+    }
+
+    @Test
+    public void testColumnOf()
+    {
+        assertEquals(Metric.FILL_LEVEL.ordinal(), BulletinImporter.columnOf("F\u00fcllungsgrad [%]"));
+        assertEquals(Metric.VOLUME.ordinal(), BulletinImporter.columnOf("Stauinhalt"));
+        assertEquals(Metric.OUTFLOW.ordinal(), BulletinImporter.columnOf("outflow"));
+        assertTrue(BulletinImporter.columnOf("Bemerkung") < 0);
+    }
+}
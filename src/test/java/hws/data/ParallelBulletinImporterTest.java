@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author grimm
+ */
+public class ParallelBulletinImporterTest
+{
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    public ParallelBulletinImporterTest()
+    {
+    }
+
+    @Test
+    public void testImportFiles() throws IOException
+    {
+        Random random = new Random(42);
+        List<Path> files = new ArrayList<>();
+
+        // yearly files of all reservoirs, overlapping by a few days
+        for (int year = 0; year < 4; year++) {
+            StringBuilder csv = new StringBuilder("\nDatum;Talsperre;Fuellungsgrad;Inhalt\n");
+            for (int reservoir = 0; reservoir < 3; reservoir++) {
+                for (int day = year * 365 - 5; day < (year + 1) * 365; day++) {
+                    csv.append(String.format(Locale.GERMANY, "%s;Talsperre %d;%.1f;%.2f\n",
+                            START.plusDays(day), reservoir, random.nextFloat() * 100, random.nextFloat() * 50));
+                }
+            }
+            Path file = tempDir.resolve("bulletin" + year + ".csv");
+            Files.writeString(file, csv);
+            files.add(file);
+        }
+
+        // a file per reservoir without reservoir column and a JSON bulletin
+        Path sieber = tempDir.resolve("Sieber.csv");
+        Files.writeString(sieber, "date,inflow\n2015-01-01,1.5\n2015-01-03,2.5\n2015-01-02,3.5\n");
+        files.add(sieber);
+
+        Path json = tempDir.resolve("bulletin.json");
+        Files.writeString(json, "[{\"date\": \"2015-01-10\", \"reservoir\": \"Talsperre 1\", \"outflow\": 7}]");
+        files.add(json);
+
+        ReservoirStore expected = new ReservoirStore();
+        BulletinImporter importer = new BulletinImporter(expected);
+        int rows = 0;
+        for (Path file : files)
+            rows += importer.importFile(file);
+
+        for (int threads : new int[] { 1, 3 }) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                ReservoirStore store = new ReservoirStore();
+                ParallelBulletinImporter instance = new ParallelBulletinImporter(store, pool);
+                instance.setChunkSize(1000);
+                assertEquals(rows, instance.importFiles(files));
+                assertStoreEquals(expected, store);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testExistingReadings() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        new BulletinImporter(store).importCsv(new StringReader("date;volume;inflow\n2015-01-02;1;2\n"), "Oker");
+
+        Path file = tempDir.resolve("Oker.csv");
+        Files.writeString(file, "date;volume\n2015-01-01;3\n2015-01-02;4\n");
+        assertEquals(2, new ParallelBulletinImporter(store).importFiles(List.of(file)));
+
+        Reservoir oker = store.get("Oker");
+        assertEquals(2, oker.size());
+        assertEquals(3f, oker.getValue(0, Metric.VOLUME));
+        assertEquals(4f, oker.getValue(1, Metric.VOLUME));
+        assertEquals(2f, oker.getValue(1, Metric.INFLOW));
+    }
+
+    @Test
+    public void testImportIntoArchive() throws IOException
+    {
+        ReservoirStore store = new ReservoirStore();
+        new BulletinImporter(store).importCsv(new StringReader("date;volume\n2015-01-01;1\n"), "Sieber");
+        try (ReservoirArchive archive = ReservoirArchive.create(tempDir.resolve("Oker.hws"), "Oker")) {
+            archive.set((int) START.toEpochDay() + 1, Metric.VOLUME, 1f);
+            store.add(archive);
+            ParallelBulletinImporter instance = new ParallelBulletinImporter(store);
+
+            // history before the archive fails the import, no reservoir is changed
+            Path history = tempDir.resolve("history.csv");
+            Files.writeString(history, "date;reservoir;volume\n2015-01-02;Sieber;2\n2015-01-01;Ecker;3\n");
+            Path oker = tempDir.resolve("Oker.csv");
+            Files.writeString(oker, "date;volume\n2015-01-01;4\n2015-01-03;5\n");
+            assertThrows(IOException.class, () -> instance.importFiles(List.of(history, oker)));
+            assertEquals(2, store.size());
+            assertEquals(1, store.get("Sieber").size());
+            assertEquals(1, archive.size());
+
+            // later days are appended
+            Files.writeString(oker, "date;volume\n2015-01-02;4\n2015-01-03;5\n");
+            assertEquals(4, instance.importFiles(List.of(history, oker)));
+            assertEquals(3, store.size());
+            assertEquals(2, store.get("Sieber").size());
+            assertEquals(2, archive.size());
+            assertEquals(4f, archive.getValue(0, Metric.VOLUME));
+            assertEquals(5f, archive.getValue(1, Metric.VOLUME));
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException
+    {
+        Path file = tempDir.resolve("Oker.csv");
+        Files.writeString(file, "date;volume\n2015-01-01;3\n2015-01-02;x\n");
+
+        ParallelBulletinImporter instance = new ParallelBulletinImporter(new ReservoirStore());
+        instance.setChunkSize(10);
+        IOException e = assertThrows(IOException.class, () -> instance.importFiles(List.of(file)));
+        assertTrue(e.getMessage().contains("Oker.csv"));
+
+        assertThrows(IOException.class, () -> instance.importFiles(List.of(tempDir.resolve("Oker.txt"))));
+        assertThrows(IllegalArgumentException.class, () -> instance.setChunkSize(0));
+    }
+
+    private static void assertStoreEquals(ReservoirStore expected, ReservoirStore actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (Reservoir reservoir : expected.getReservoirs()) {
+            Reservoir other = actual.get(reservoir.getName());
+            assertEquals(reservoir.size(), other.size());
+            for (int row = 0; row < reservoir.size(); row++) {
+                assertEquals(reservoir.getEpochDay(row), other.getEpochDay(row));
+                for (Metric metric : Metric.VALUES)
+                    assertEquals(reservoir.getValue(row, metric), other.getValue(row, metric));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author grimm
+ */
+public class ReservoirArchiveTest
+{
+    private static final int DAY = 19000;
+
+    @TempDir
+    Path tempDir;
+
+    public ReservoirArchiveTest()
+    {
+    }
+
+    @Test
+    public void testWriteAndOpen() throws IOException
+    {
+        Path file = tempDir.resolve("Okertalsperre" + ReservoirArchive.EXTENSION);
+
+        ReservoirTable table = new ReservoirTable("Okertalsperre");
+        for (int n = 0; n < 1000; n++)
+            table.set(DAY + n, n, 2 * n, Float.NaN, 1);
+
+        try (ReservoirArchive archive = ReservoirArchive.write(file, table)) {
+            assertEquals(1000, archive.size());
+        }
+
+        try (ReservoirArchive archive = ReservoirArchive.open(file)) {
+            assertEquals("Okertalsperre", archive.getName());
+            assertEquals(1000, archive.size());
+            assertEquals(DAY + 500, archive.getEpochDay(500));
+            assertEquals(500f, archive.getValue(500, Metric.FILL_LEVEL));
+            assertEquals(1000f, archive.getValue(500, Metric.VOLUME));
+            assertTrue(Float.isNaN(archive.getValue(500, Metric.INFLOW)));
+
+            assertEquals(500, archive.indexOf(DAY + 500));
+            assertEquals(-1001, archive.indexOf(DAY + 2000));
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.getEpochDay(1000));
+        }
+    }
+
+    @Test
+    public void testAppend() throws IOException
+    {
+        Path file = tempDir.resolve("Sieber" + ReservoirArchive.EXTENSION);
+
+        try (ReservoirArchive archive = ReservoirArchive.create(file, "Sieber")) {
+            // more than the room mapped initially
+            for (int n = 0; n < 1000; n++)
+                archive.set(DAY + n, Metric.FILL_LEVEL, n);
+
+            // the last day could be completed, earlier days are fixed
+            archive.set(DAY + 999, Metric.OUTFLOW, 7f);
+            assertThrows(IllegalArgumentException.class, () -> archive.set(DAY, Metric.FILL_LEVEL, 1f));
+        }
+
+        try (ReservoirArchive archive = ReservoirArchive.open(file)) {
+            assertEquals(1000, archive.size());
+            assertEquals(999f, archive.getValue(999, Metric.FILL_LEVEL));
+            assertEquals(7f, archive.getValue(999, Metric.OUTFLOW));
+
+            archive.set(DAY + 1000, Metric.FILL_LEVEL, 1000f);
+            assertEquals(1001, archive.size());
+        }
+    }
+
+    @Test
+    public void testOpen_KeepsFile() throws IOException
+    {
+        Path file = tempDir.resolve("Ecker" + ReservoirArchive.EXTENSION);
+        ReservoirTable table = new ReservoirTable("Ecker");
+        for (int n = 0; n < 10; n++)
+            table.set(DAY + n, Metric.VOLUME, n);
+        ReservoirArchive.write(file, table).close();
+        long length = Files.size(file);
+
+        // reading and completing the last day don't enlarge the file
+        try (ReservoirArchive archive = ReservoirArchive.open(file)) {
+            assertEquals(9f, archive.getValue(9, Metric.VOLUME));
+            archive.set(DAY + 9, Metric.INFLOW, 1f);
+        }
+        assertEquals(length, Files.size(file));
+
+        try (ReservoirArchive archive = ReservoirArchive.open(file)) {
+            assertEquals(1f, archive.getValue(9, Metric.INFLOW));
+        }
+    }
+
+    @Test
+    public void testOpen_ReadOnly() throws IOException
+    {
+        Path file = tempDir.resolve("Grane" + ReservoirArchive.EXTENSION);
+        ReservoirTable table = new ReservoirTable("Grane");
+        table.set(DAY, Metric.VOLUME, 1f);
+        ReservoirArchive.write(file, table).close();
+        long length = Files.size(file);
+        assertTrue(file.toFile().setWritable(false));
+
+        try (ReservoirArchive archive = ReservoirArchive.open(file)) {
+            assertEquals(1, archive.size());
+            assertEquals(1f, archive.getValue(0, Metric.VOLUME));
+            // permissions don't apply to a superuser
+            if (!Files.isWritable(file))
+                assertThrows(IllegalStateException.class, () -> archive.set(DAY + 1, Metric.VOLUME, 2f));
+        }
+        assertEquals(length, Files.size(file));
+    }
+
+    @Test
+    public void testOpen_InvalidName() throws IOException
+    {
+        Path file = tempDir.resolve("Innerste" + ReservoirArchive.EXTENSION);
+        ReservoirArchive.create(file, "Innerste").close();
+
+        for (short length : new short[] { -1, 63 }) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(2).putShort(0, length), 16);
+            }
+            assertThrows(IOException.class, () -> ReservoirArchive.open(file));
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException
+    {
+        Path file = tempDir.resolve("invalid" + ReservoirArchive.EXTENSION);
+        Files.write(file, new byte[ReservoirArchive.HEADER_SIZE]);
+
+        assertThrows(IOException.class, () -> ReservoirArchive.open(file));
+        assertThrows(IOException.class, () -> ReservoirArchive.create(file, "invalid"));
+    }
+}
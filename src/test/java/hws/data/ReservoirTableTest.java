@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.data;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author grimm
+ */
+public class ReservoirTableTest
+{
+    private static final int DAY = (int) LocalDate.of(2023, 1, 1).toEpochDay();
+
+    public ReservoirTableTest()
+    {
+    }
+
+    @Test
+    public void testAppend()
+    {
+        ReservoirTable instance = new ReservoirTable("Okertalsperre");
+
+        for (int n = 0; n < 1000; n++)
+            instance.set(DAY + n, Metric.FILL_LEVEL, n / 10f);
+
+        assertEquals(1000, instance.size());
+        assertEquals(DAY, instance.getEpochDay(0));
+        assertEquals(DAY + 999, instance.getEpochDay(999));
+        assertEquals(99.9f, instance.getValue(999, Metric.FILL_LEVEL));
+        assertTrue(Float.isNaN(instance.getValue(999, Metric.VOLUME)));
+    }
+
+    @Test
+    public void testSameDay()
+    {
+        ReservoirTable instance = new ReservoirTable("Okertalsperre");
+
+        instance.set(DAY, Metric.FILL_LEVEL, 80f);
+        instance.set(DAY, Metric.VOLUME, 37.5f);
+
+        assertEquals(1, instance.size());
+        assertEquals(80f, instance.getValue(0, Metric.FILL_LEVEL));
+        assertEquals(37.5f, instance.getValue(0, Metric.VOLUME));
+    }
+
+    @Test
+    public void testInsert()
+    {
+        ReservoirTable instance = new ReservoirTable("Granetalsperre");
+
+        instance.set(DAY + 10, 1f, 2f, 3f, 4f);
+        instance.set(DAY, 5f, 6f, 7f, 8f);
+        instance.set(DAY + 5, Metric.OUTFLOW, 9f);
+
+        assertEquals(3, instance.size());
+        assertEquals(DAY, instance.getEpochDay(0));
+        assertEquals(DAY + 5, instance.getEpochDay(1));
+        assertEquals(DAY + 10, instance.getEpochDay(2));
+        assertEquals(5f, instance.getValue(0, Metric.FILL_LEVEL));
+        assertEquals(9f, instance.getValue(1, Metric.OUTFLOW));
+        assertTrue(Float.isNaN(instance.getValue(1, Metric.INFLOW)));
+        assertEquals(4f, instance.getValue(2, Metric.OUTFLOW));
+
+        assertEquals(1, instance.indexOf(DAY + 5));
+        assertEquals(-2, instance.indexOf(DAY + 1));
+    }
+
+    @Test
+    public void testVersion()
+    {
+        ReservoirTable instance = new ReservoirTable("Soesetalsperre");
+        int version = instance.getVersion();
+
+        instance.set(DAY, Metric.FILL_LEVEL, 80f);
+        assertNotEquals(version, instance.getVersion());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> instance.getEpochDay(1));
+        assertThrows(IllegalArgumentException.class, () -> instance.set(DAY, 1f, 2f));
+    }
+
+    @Test
+    public void testRewriteVersion()
+    {
+        ReservoirTable instance = new ReservoirTable("Soesetalsperre");
+        instance.set(DAY, Metric.FILL_LEVEL, 80f);
+        int rewriteVersion = instance.getRewriteVersion();
+
+        // appending and completing the last day are no rewrites
+        instance.set(DAY + 1, Metric.FILL_LEVEL, 81f);
+        instance.set(DAY + 1, Metric.VOLUME, 10f);
+        instance.set(DAY + 2, 1f, 2f, 3f, 4f);
+        assertEquals(rewriteVersion, instance.getRewriteVersion());
+
+        ReservoirTable later = new ReservoirTable("Soesetalsperre");
+        later.set(DAY + 2, Metric.INFLOW, 5f);
+        later.set(DAY + 3, Metric.INFLOW, 6f);
+        instance.merge(later);
+        assertEquals(rewriteVersion, instance.getRewriteVersion());
+
+        // a day in front of the last one is
+        instance.set(DAY + 1, Metric.OUTFLOW, 1f);
+        assertEquals(instance.getVersion(), instance.getRewriteVersion());
+        rewriteVersion = instance.getRewriteVersion();
+
+        instance.set(DAY - 1, Metric.OUTFLOW, 1f);
+        assertNotEquals(rewriteVersion, instance.getRewriteVersion());
+    }
+
+    @Test
+    public void testMerge()
+    {
+        ReservoirTable instance = new ReservoirTable("Okertalsperre");
+        ReservoirTable expected = new ReservoirTable("Okertalsperre");
+        for (int n = 0; n < 500; n += 2) {
+            instance.set(DAY + n, Metric.FILL_LEVEL, n);
+            expected.set(DAY + n, Metric.FILL_LEVEL, n);
+        }
+
+        // interleaving and overlapping days, before and after the table
+        ReservoirTable run = new ReservoirTable("Okertalsperre");
+        for (int n = -10; n < 600; n += 3) {
+            run.set(DAY + n, Metric.VOLUME, -n);
+            expected.set(DAY + n, Metric.VOLUME, -n);
+        }
+        run.set(DAY, Metric.FILL_LEVEL, 42f);
+        expected.set(DAY, Metric.FILL_LEVEL, 42f);
+
+        int version = instance.getVersion();
+        instance.merge(run);
+        assertNotEquals(version, instance.getVersion());
+
+        assertEquals(expected.size(), instance.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getEpochDay(row), instance.getEpochDay(row));
+            for (Metric metric : Metric.VALUES)
+                assertEquals(expected.getValue(row, metric), instance.getValue(row, metric));
+        }
+    }
+
+    @Test
+    public void testStore()
+    {
+        ReservoirStore store = new ReservoirStore();
+
+        Reservoir table = store.getOrCreate("Eckertalsperre");
+        assertSame(table, store.getOrCreate("Eckertalsperre"));
+        assertSame(table, store.get("Eckertalsperre"));
+        assertNull(store.get("Odertalsperre"));
+        assertInstanceOf(ReservoirTable.class, table);
+        assertEquals(1, store.size());
+    }
+}
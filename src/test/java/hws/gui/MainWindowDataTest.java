@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui;
+
+import hws.data.Metric;
+import hws.data.Reservoir;
+import hws.gui.charts.DownsampledSeries;
+import hws.gui.charts.LocalDateAxis;
+import hws.gui.charts.TimeSeriesSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javafx.scene.chart.XYChart;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class MainWindowDataTest
+{
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+    private static final int SIZE = 6 * 365;
+
+    @TempDir
+    Path tempDir;
+
+    public MainWindowDataTest()
+    {
+    }
+
+    @Test
+    public void testSeries_ImportAfterCreate()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            MainWindowData instance = new MainWindowData();
+            LocalDateAxis axis = new LocalDateAxis(START, START.plusDays(SIZE));
+            axis.resize(100, 30);       // zoomed out: samples from a coarse level
+            DownsampledSeries series = instance.createSeries(axis, "Oker", Metric.VOLUME);
+            List<XYChart.Data<LocalDate,Number>> data = series.getSeries().getData();
+            assertTrue(data.isEmpty());
+
+            StringBuilder csv = new StringBuilder("date,volume\n");
+            for (int n = 1; n <= SIZE; n++)
+                csv.append(START.plusDays(n)).append(',').append(n).append('\n');
+            Path file = tempDir.resolve("Oker.csv");
+            Files.writeString(file, csv);
+            assertEquals(SIZE, instance.importBulletin(file));
+            series.refresh();
+
+            assertFalse(data.isEmpty());
+            assertTrue(data.size() < SIZE / 2);
+            assertEquals(START.plusDays(1), data.get(0).getXValue());
+            assertEquals(START.plusDays(SIZE), data.get(data.size() - 1).getXValue());
+            assertTrue(containsValue(data, SIZE));
+            assertValues(data);
+
+            // an earlier day shifts all rows of the reservoir
+            Files.writeString(file, "date,volume\n" + START + ",0\n");
+            instance.importBulletin(file);
+            series.refresh();
+
+            assertEquals(START, data.get(0).getXValue());
+            assertEquals(0, data.get(0).getYValue().doubleValue());
+            assertValues(data);
+            series.detach();
+            return null;
+        });
+    }
+
+    @Test
+    public void testSeries_Gaps()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            MainWindowData instance = new MainWindowData();
+            Reservoir oker = instance.getStore().getOrCreate("Oker");
+            int start = (int) START.toEpochDay();
+
+            // every third day, including the first one, has a fill level only
+            for (int n = 0; n <= SIZE; n++) {
+                if (n % 3 == 0)
+                    oker.set(start + n, Metric.FILL_LEVEL, 50);
+                else
+                    oker.set(start + n, Metric.VOLUME, n);
+            }
+
+            TimeSeriesSource volume = instance.getSeries("Oker", Metric.VOLUME);
+            assertEquals(SIZE - SIZE / 3, volume.size());
+            assertEquals(start + 1, volume.getEpochDay(0));
+            for (int i = 0; i < volume.size(); i++)
+                assertEquals(volume.getEpochDay(i) - start, volume.getValue(i));
+
+            LocalDateAxis axis = new LocalDateAxis(START, START.plusDays(SIZE));
+            axis.resize(100, 30);
+            DownsampledSeries series = instance.createSeries(axis, "Oker", Metric.VOLUME);
+            List<XYChart.Data<LocalDate,Number>> data = series.getSeries().getData();
+
+            assertEquals(START.plusDays(1), data.get(0).getXValue());
+            assertTrue(containsValue(data, 1));
+            assertTrue(containsValue(data, SIZE - 1));
+            assertValues(data);
+
+            // filling a gap adds a sample to the view
+            oker.set(start, Metric.VOLUME, 0);
+            assertEquals(SIZE - SIZE / 3 + 1, volume.size());
+            series.refresh();
+            assertEquals(START, data.get(0).getXValue());
+            series.detach();
+            return null;
+        });
+    }
+
+    @Test
+    public void testGetSeries_Changes()
+    {
+        MainWindowData instance = new MainWindowData();
+        Reservoir oker = instance.getStore().getOrCreate("Oker");
+        TimeSeriesSource view = instance.getSeries("Oker", Metric.VOLUME);
+        int start = (int) START.toEpochDay();
+
+        // appended days, one of them without a volume
+        oker.set(start, Metric.VOLUME, 1f);
+        oker.set(start + 1, Metric.VOLUME, 2f);
+        assertEquals(2, view.size());
+        oker.set(start + 2, Metric.FILL_LEVEL, 50f);
+        assertEquals(2, view.size());
+        oker.set(start + 2, Metric.VOLUME, 3f);      // the last day is completed
+        oker.set(start + 3, Metric.FILL_LEVEL, 50f);
+        oker.set(start + 4, Metric.VOLUME, 5f);
+        assertEquals(4, view.size());
+        assertEquals(start + 2, view.getEpochDay(2));
+        assertEquals(start + 4, view.getEpochDay(3));
+        assertEquals(5, view.getValue(3));
+
+        // days in front of the last one
+        oker.set(start + 3, Metric.VOLUME, 4f);
+        oker.set(start - 1, Metric.VOLUME, 0f);
+        assertEquals(6, view.size());
+        for (int n = 0; n < 6; n++) {
+            assertEquals(start - 1 + n, view.getEpochDay(n));
+            assertEquals(n, view.getValue(n));
+        }
+    }
+
+    @Test
+    public void testSaveArchives() throws IOException
+    {
+        MainWindowData instance = new MainWindowData();
+        instance.getStore().getOrCreate("../Oker").set(19000, Metric.VOLUME, 1f);
+        instance.getStore().getOrCreate("S\u00f6se").set(19000, Metric.VOLUME, 2f);
+        instance.saveArchives(tempDir);
+        instance.close();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(Set.of("%2E%2E%2FOker.hws", "S%C3%B6se.hws"),
+                    files.map(file -> file.getFileName().toString()).collect(Collectors.toSet()));
+        }
+
+        instance = new MainWindowData();
+        instance.openArchives(tempDir);
+        assertEquals(2f, instance.getStore().get("S\u00f6se").getValue(0, Metric.VOLUME));
+        instance.close();
+    }
+
+    @Test
+    public void testSaveArchives_InvalidName() throws IOException
+    {
+        MainWindowData instance = new MainWindowData();
+        Reservoir oker = instance.getStore().getOrCreate("Oker");
+        oker.set(19000, Metric.VOLUME, 1f);
+        instance.getStore().getOrCreate("x".repeat(63)).set(19000, Metric.VOLUME, 2f);
+
+        // nothing is written if one of the names doesn't fit
+        assertThrows(IOException.class, () -> instance.saveArchives(tempDir));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertSame(oker, instance.getStore().get("Oker"));
+    }
+
+    // the volume of each day is its distance to START, gaps mustn't show up as NaN
+    private static void assertValues(List<XYChart.Data<LocalDate,Number>> data)
+    {
+        for (XYChart.Data<LocalDate,Number> item : data)
+            assertEquals(item.getXValue().toEpochDay() - START.toEpochDay(), item.getYValue().doubleValue());
+    }
+
+    private static boolean containsValue(List<XYChart.Data<LocalDate,Number>> data, double value)
+    {
+        return data.stream().anyMatch(item -> item.getYValue().doubleValue() == value);
+    }
+}
@@ -18,6 +18,7 @@ package hws.gui.charts;
 
 import java.time.LocalDate;
 import static java.time.temporal.ChronoUnit.DAYS;
+import java.util.Locale;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,6 +48,30 @@ public class AxisTickJUnitTest
         
     }
 
+    @Test
+    public void testAxisTick_findInterval_Table()
+    {
+        // the interval table must choose the same intervals as the former hard-coded divisors
+        int[] divisors = { 1, 7, 30, 90, 365, 3650, 18250, 36500 };
+
+        for (long spanInDays = 0; spanInDays < 80000; spanInDays += 13) {
+            for (int cntTicks = 0; cntTicks < 30; cntTicks++) {
+                int expectedIdx = 0;
+                long smallestDistance = Long.MAX_VALUE;
+                for (int n=0; n < divisors.length; n++) {
+                    long delta = spanInDays / divisors[n] - cntTicks;
+                    if (delta * delta < smallestDistance) {
+                        smallestDistance = delta * delta;
+                        expectedIdx = n;
+                    }
+                }
+                assertEquals(LocalDateAxisStub.valueOf(expectedIdx),
+                             LocalDateAxisStub.findInterval(spanInDays, cntTicks),
+                             "span " + spanInDays + ", ticks " + cntTicks);
+            }
+        }
+    }
+
     @Test
     public void testAxisTick_ValueOf()
     {
@@ -361,4 +386,24 @@ public class AxisTickJUnitTest
         inputDate = LocalDate.of(2023, 1, 1); 
         assertEquals("Q1 23", interval.getLabel(inputDate));
     }
+
+    @Test
+    public void testAxisTick_WeekLabel_Locale()
+    {
+        LocalDateAxisStub instance = new LocalDateAxisStub();
+        LocalDateAxis.AxisTick interval = instance.getIntervalWeeks();
+        LocalDate inputDate = LocalDate.of(2023, 1, 1);    // Sunday
+        Locale defaultLocale = Locale.getDefault();
+
+        try {
+            Locale.setDefault(Locale.GERMANY);             // ISO weeks
+            assertEquals("W52\n2023", interval.getLabel(inputDate));
+            assertEquals("W52\n2023", interval.getLabel(inputDate));
+
+            Locale.setDefault(Locale.US);                  // weeks start on sunday
+            assertEquals("W 1\n2023", interval.getLabel(inputDate));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class CanvasLineChartTest
+{
+    public CanvasLineChartTest()
+    {
+    }
+
+    @Test
+    public void testNoNodesPerItem()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(10), () -> {
+            LocalDate start = LocalDate.of(1990, 1, 1);
+            LocalDateAxis xAxis = new LocalDateAxis(start, start.plusDays(100_000));
+            NumberAxis yAxis = new NumberAxis(0, 100, 10);
+            CanvasLineChart<LocalDate,Number> instance = new CanvasLineChart<>(xAxis, yAxis);
+
+            List<XYChart.Data<LocalDate,Number>> items = new ArrayList<>();
+            for (int n = 0; n <= 100_000; n++)
+                items.add(new XYChart.Data<>(start.plusDays(n), 50 + 40 * Math.sin(n / 100.0)));
+
+            XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+            series.getData().setAll(items);
+            instance.getData().add(series);
+
+            new Scene(instance, 800, 600);
+            instance.applyCss();
+            instance.layout();
+
+            // the plot consists of the canvas and a node per series
+            Canvas canvas = instance.getCanvas();
+            assertEquals(List.of(canvas, series.getNode()), canvas.getParent().getChildrenUnmodifiable());
+            assertNull(series.getData().get(0).getNode());
+            assertEquals(xAxis.getWidth(), canvas.getWidth());
+            assertEquals(yAxis.getHeight(), canvas.getHeight());
+            assertTrue(canvas.getWidth() > 0);
+
+            instance.getData().remove(series);
+            instance.layout();
+            assertTrue(instance.getData().isEmpty());
+            assertEquals(List.of(canvas), canvas.getParent().getChildrenUnmodifiable());
+        });
+    }
+
+    @Test
+    public void testVisibleItemsOnly()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(10), () -> {
+            LocalDate start = LocalDate.of(1990, 1, 1);
+            int[] calls = new int[1];
+            LocalDateAxis xAxis = new LocalDateAxis(start, start.plusDays(100_000)) {
+                    @Override
+                    public double getDisplayPosition(LocalDate value) {
+                        calls[0]++;
+                        return super.getDisplayPosition(value);
+                    }
+                };
+            NumberAxis yAxis = new NumberAxis(0, 100, 10);
+            CanvasLineChart<LocalDate,Number> instance = new CanvasLineChart<>(xAxis, yAxis);
+
+            XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+            for (int n = 0; n <= 100_000; n++)
+                series.getData().add(new XYChart.Data<>(start.plusDays(n), 50));
+            instance.getData().add(series);
+
+            new Scene(instance, 800, 600);
+            instance.applyCss();
+            instance.layout();
+
+            // the last 1000 days: the items in front of them are skipped by a binary search
+            calls[0] = 0;
+            xAxis.setBounds(start.plusDays(99_000), start.plusDays(100_000));
+            instance.layout();
+            assertTrue(calls[0] > 1000);
+            assertTrue(calls[0] < 2000, "getDisplayPosition called " + calls[0] + " times");
+        });
+    }
+
+    @Test
+    public void testBuildPath()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(10), () -> {
+            LocalDate start = LocalDate.of(2020, 1, 1);
+            CanvasLineChart<LocalDate,Number> instance = new CanvasLineChart<>(new HalfPixelAxis(start), new PlainAxis());
+
+            // two days per pixel column, the plot area is 2.5 pixels wide
+            XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+            int[][] items = { {-4, 10}, {-2, 20}, {0, 30}, {1, 70}, {2, 40}, {3, 10}, {4, 50}, {6, 60}, {8, 90} };
+            for (int[] item : items)
+                series.getData().add(new XYChart.Data<>(start.plusDays(item[0]), item[1]));
+            instance.getData().add(series);
+
+            List<String> path = new ArrayList<>();
+            instance.buildPath(series, 2.5, recorder(path));
+            assertEquals(List.of(
+                    "M -1.0 20.0",                                  // nearest item on the left
+                    "L 0.0 30.0",
+                    "L 0.0 30.0", "L 0.0 70.0", "L 0.0 70.0",       // column 0: 30..70, ends at 70
+                    "L 1.0 40.0",
+                    "L 1.0 10.0", "L 1.0 40.0", "L 1.0 10.0",       // column 1: 10..40, ends at 10
+                    "L 2.0 50.0",
+                    "L 3.0 60.0"),                                  // nearest item on the right
+                    path);
+
+            // without items left of the plot area the line starts at the first item
+            series.getData().remove(0, 2);
+            path.clear();
+            instance.buildPath(series, 2.5, recorder(path));
+            assertEquals("M 0.0 30.0", path.get(0));
+            assertEquals("L 0.0 30.0", path.get(1));
+            assertEquals("L 3.0 60.0", path.get(path.size()-1));
+        });
+    }
+
+    @Test
+    public void testStrokeFromCss()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(10), () -> {
+            LocalDateAxis xAxis = new LocalDateAxis(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31));
+            NumberAxis yAxis = new NumberAxis(0, 100, 10);
+            CanvasLineChart<LocalDate,Number> instance = new CanvasLineChart<>(xAxis, yAxis);
+
+            XYChart.Series<LocalDate,Number> first = new XYChart.Series<>();
+            XYChart.Series<LocalDate,Number> second = new XYChart.Series<>();
+            instance.getData().addAll(List.of(first, second));
+
+            new Scene(instance, 800, 600);
+            instance.applyCss();
+            instance.layout();
+
+            // the default colors of modena
+            assertTrue(second.getNode().getStyleClass().contains("default-color1"));
+            assertEquals(Color.web("#f3622d"), instance.getStroke(first));
+            assertEquals(Color.web("#fba71b"), instance.getStroke(second));
+
+            // inline styles and style sheets of the user
+            first.getNode().setStyle("-fx-stroke: #123456;");
+            instance.applyCss();
+            assertEquals(Color.web("#123456"), instance.getStroke(first));
+
+            // the indices follow the removal of a series
+            instance.getData().remove(first);
+            instance.applyCss();
+            assertTrue(second.getNode().getStyleClass().contains("default-color0"));
+            assertEquals(Color.web("#f3622d"), instance.getStroke(second));
+        });
+    }
+
+    @Test
+    public void testAsChartRangePaneContent()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(10), () -> {
+            LocalDateAxis xAxis = new LocalDateAxis(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31));
+            NumberAxis yAxis = new NumberAxis(0, 100, 10);
+            CanvasLineChart<LocalDate,Number> instance = new CanvasLineChart<>(xAxis, yAxis);
+
+            XYChart.Series<LocalDate,Number> series = new XYChart.Series<>();
+            series.getData().add(new XYChart.Data<>(LocalDate.of(2018, 1, 1), 10));
+            series.getData().add(new XYChart.Data<>(LocalDate.of(2023, 1, 1), 90));
+            instance.getData().add(series);
+
+            ChartRangePane pane = new ChartRangePane(instance);
+            new Scene(pane, 800, 600);
+            pane.applyCss();
+            pane.layout();
+
+            // the range converters see the data of the canvas chart
+            assertSame(instance, pane.getContent());
+            assertEquals(LocalDate.of(2018, 1, 1), xAxis.getLowerBound());
+            assertEquals(LocalDate.of(2023, 1, 1), xAxis.getUpperBound());
+        });
+    }
+
+    private static CanvasLineChart.PathSink recorder(List<String> path)
+    {
+        return new CanvasLineChart.PathSink() {
+                @Override
+                public void moveTo(double x, double y) { path.add("M " + x + " " + y); }
+
+                @Override
+                public void lineTo(double x, double y) { path.add("L " + x + " " + y); }
+            };
+    }
+
+    // half a pixel per day from the given day on
+    private static class HalfPixelAxis
+    extends LocalDateAxis
+    {
+        private final long startDay;
+
+        HalfPixelAxis(LocalDate start)
+        {
+            startDay = start.toEpochDay();
+        }
+
+        @Override
+        public double getDisplayPosition(LocalDate value)
+        {
+            return (value.toEpochDay() - startDay) * 0.5;
+        }
+    }
+
+    // the value is the display position
+    private static class PlainAxis
+    extends ValueAxis<Number>
+    {
+        @Override
+        public double getDisplayPosition(Number value)
+        {
+            return value.doubleValue();
+        }
+
+        @Override
+        protected List<Number> calculateMinorTickMarks()
+        {
+            return List.of();
+        }
+
+        @Override
+        protected void setRange(Object range, boolean animate)
+        {
+        }
+
+        @Override
+        protected Object getRange()
+        {
+            return new double[] { getLowerBound(), getUpperBound() };
+        }
+
+        @Override
+        protected List<Number> calculateTickValues(double length, Object range)
+        {
+            return List.of();
+        }
+
+        @Override
+        protected String getTickMarkLabel(Number value)
+        {
+            return value.toString();
+        }
+    }
+}
@@ -20,7 +20,9 @@ import hws.gui.charts.skins.RangeControlSet;
 import hws.testhelper.TestHelper;
 import static hws.testhelper.TestHelper.isEqual;
 import java.util.ArrayList;
+import java.util.List;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.chart.CategoryAxis;
 import org.junit.jupiter.api.Test;
@@ -370,6 +372,84 @@ public class CategoryRangeConverterTest
         assertEquals(0, ctrlSet.getLowerLimit());
     }
     
+    @Test
+    public void testWindowMove_MinimalDiff()
+    {
+        ObservableList<String> dataList = FXCollections.observableArrayList();
+        for (int n = 0; n < 10; n++)
+            dataList.add("Category " + n);
+
+        CategoryAxis axis = new CategoryAxis();
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+
+        CategoryRangeConverter instance = new CategoryRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(dataList);
+        instance.setBounds(2, 5);
+        assertEquals(dataList.subList(2, 6), axis.getCategories());
+
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        axis.getCategories().addListener((ListChangeListener<String>) c -> {
+                while (c.next()) {
+                    removed.addAll(c.getRemoved());
+                    added.addAll(c.getAddedSubList());
+                }
+            });
+
+        // moving by one category only touches both ends
+        instance.setBounds(3, 6);
+        assertEquals(dataList.subList(3, 7), axis.getCategories());
+        assertEquals(List.of("Category 2"), removed);
+        assertEquals(List.of("Category 6"), added);
+        assertEquals(categoryPercent(3, dataList), ctrlSet.getLowerLimit(), 0.0001);
+        assertEquals(categoryPercent(6, dataList), ctrlSet.getUpperLimit(), 0.0001);
+
+        // dragging the range thumb keeps the number of visible categories
+        removed.clear();
+        added.clear();
+        ctrlSet.setRangeLengthAndPosition(100, ctrlSet.getRangeLength());
+        assertEquals(dataList.subList(6, 10), axis.getCategories());
+        assertEquals(List.of("Category 3", "Category 4", "Category 5"), removed);
+        assertEquals(List.of("Category 7", "Category 8", "Category 9"), added);
+
+        // no overlap
+        instance.setBounds(0, 1);
+        assertEquals(dataList.subList(0, 2), axis.getCategories());
+    }
+
+    @Test
+    public void testIndexedLookup()
+    {
+        ObservableList<String> dataList = FXCollections.observableArrayList(
+                "Station B", "Station A", "Station B", "Station C", "Station A", "Station D");
+
+        CategoryAxis axis = new CategoryAxis();
+        CategoryRangeConverter instance = new CategoryRangeConverter(axis);
+        instance.updateData(dataList);
+
+        // duplicates are dropped, the order of the first appearance is kept
+        assertEquals(List.of("Station B", "Station A", "Station C", "Station D"), axis.getCategories());
+        assertEquals(0, instance.indexOf("Station B"));
+        assertEquals(3, instance.indexOf("Station D"));
+        assertEquals(-1, instance.indexOf("Station X"));
+
+        assertEquals(0, instance.categoryToPercent("Station B"), 0.0001);
+        assertEquals(33.3333, instance.categoryToPercent("Station A"), 0.0001);
+        assertEquals(100, instance.categoryToPercent("Station D"), 0.0001);
+        assertTrue(Double.isNaN(instance.categoryToPercent("Station X")));
+
+        // the index follows new data
+        instance.updateData(List.of("Station D", "Station C"));
+        assertEquals(0, instance.indexOf("Station D"));
+        assertEquals(-1, instance.indexOf("Station A"));
+    }
+
+    private double categoryPercent(int idx, List<String> list)
+    {
+        return 100.0 * idx / (list.size() - 1);
+    }
+
     private int getIndex(String text)
     {
         return dataBackup.indexOf(text);
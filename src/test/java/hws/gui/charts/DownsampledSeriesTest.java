@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.XYChart;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class DownsampledSeriesTest
+{
+    private static final int START = (int) LocalDate.of(1990, 1, 1).toEpochDay();
+    private static final int SIZE = 30 * 365;
+
+    public DownsampledSeriesTest()
+    {
+    }
+
+    @Test
+    public void testFullRange()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            LocalDateAxis axis = new LocalDateAxis(LocalDate.ofEpochDay(START), LocalDate.ofEpochDay(START + SIZE - 1));
+            DownsampledSeries instance = new DownsampledSeries(axis, createSource(), "Oker");
+            List<XYChart.Data<LocalDate,Number>> data = instance.getSeries().getData();
+
+            // axis not laid out: 1000 pixels
+            assertTrue(data.size() <= 2 * 1000 + 2);
+            assertEquals(LocalDate.ofEpochDay(START), data.get(0).getXValue());
+            assertEquals(LocalDate.ofEpochDay(START + SIZE - 1), data.get(data.size() - 1).getXValue());
+            assertTrue(containsValue(data, 100));
+            assertTrue(containsValue(data, -100));
+
+            instance.setMethod(DownsampledSeries.Method.LTTB);
+            assertTrue(data.size() <= 1000 + 4);
+            instance.detach();
+        });
+    }
+
+    @Test
+    public void testVisibleRange()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            LocalDateAxis axis = new LocalDateAxis(LocalDate.ofEpochDay(START), LocalDate.ofEpochDay(START + SIZE - 1));
+            DownsampledSeries instance = new DownsampledSeries(axis, createSource(), "Oker");
+            List<XYChart.Data<LocalDate,Number>> data = instance.getSeries().getData();
+
+            // 100 days fit completely, plus one neighbour on each side and the anchors
+            LocalDate lower = LocalDate.ofEpochDay(START + 5000);
+            LocalDate upper = LocalDate.ofEpochDay(START + 5099);
+            axis.setBounds(lower, upper);
+            instance.refresh();
+
+            long visible = data.stream()
+                    .filter(item -> !item.getXValue().isBefore(lower) && !item.getXValue().isAfter(upper))
+                    .count();
+            assertEquals(100, visible);
+            assertEquals(100 + 2 + 4, data.size());
+            instance.detach();
+        });
+    }
+
+    @Test
+    public void testRefresh_KeepsItems()
+    {
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            LocalDateAxis axis = new LocalDateAxis(LocalDate.ofEpochDay(START + 5000), LocalDate.ofEpochDay(START + 5099));
+            DownsampledSeries instance = new DownsampledSeries(axis, createSource(), "Oker");
+            List<XYChart.Data<LocalDate,Number>> data = instance.getSeries().getData();
+
+            XYChart.Data<LocalDate,Number> first = data.get(0);
+            XYChart.Data<LocalDate,Number> last = data.get(data.size() - 1);
+            XYChart.Data<LocalDate,Number> inside = findItem(data, LocalDate.ofEpochDay(START + 5050));
+
+            int[] changes = new int[2];
+            instance.getSeries().getData().addListener((ListChangeListener<XYChart.Data<LocalDate,Number>>) c -> {
+                    while (c.next()) {
+                        changes[0] += c.getRemoved().size();
+                        changes[1] += c.getAddedSubList().size();
+                    }
+                });
+
+            // pan by 10 days: only the samples which left or entered the range change
+            axis.setBounds(LocalDate.ofEpochDay(START + 5010), LocalDate.ofEpochDay(START + 5109));
+            instance.refresh();
+
+            assertEquals(10, changes[0]);
+            assertEquals(10, changes[1]);
+            assertSame(first, data.get(0));
+            assertSame(last, data.get(data.size() - 1));
+            assertSame(inside, findItem(data, LocalDate.ofEpochDay(START + 5050)));
+            assertEquals(100 + 2 + 4, data.size());
+            instance.detach();
+        });
+    }
+
+    private static XYChart.Data<LocalDate,Number> findItem(List<XYChart.Data<LocalDate,Number>> data, LocalDate date)
+    {
+        return data.stream().filter(item -> item.getXValue().equals(date)).findFirst().orElseThrow();
+    }
+
+    private TimeSeriesSource createSource()
+    {
+        int[] days = new int[SIZE];
+        double[] values = new double[SIZE];
+
+        for (int n = 0; n < SIZE; n++) {
+            days[n] = START + n;
+            values[n] = 50 + 20 * Math.sin(2 * Math.PI * n / 365);
+        }
+        values[1000] = 100;
+        values[9000] = -100;
+
+        return TimeSeriesSource.of(days, values);
+    }
+
+    private static boolean containsValue(List<XYChart.Data<LocalDate,Number>> data, double value)
+    {
+        return data.stream().anyMatch(item -> item.getYValue().doubleValue() == value);
+    }
+}
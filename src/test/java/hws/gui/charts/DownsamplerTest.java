@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author grimm
+ */
+public class DownsamplerTest
+{
+    public DownsamplerTest()
+    {
+    }
+
+    @Test
+    public void testLttb()
+    {
+        TimeSeriesSource source = createSource(100_000);
+        int[] out = new int[1000];
+
+        int count = Downsampler.lttb(source, 0, source.size(), 1000, out);
+        assertEquals(1000, count);
+        assertEquals(0, out[0]);
+        assertEquals(source.size() - 1, out[count - 1]);
+        assertAscending(out, count);
+
+        // the peaks are kept
+        assertTrue(contains(out, count, 5_000));
+        assertTrue(contains(out, count, 70_000));
+    }
+
+    @Test
+    public void testLttb_FewSamples()
+    {
+        TimeSeriesSource source = createSource(100);
+        int[] out = new int[1000];
+
+        int count = Downsampler.lttb(source, 10, 20, 1000, out);
+        assertEquals(10, count);
+        assertEquals(10, out[0]);
+        assertEquals(19, out[9]);
+
+        assertThrows(IllegalArgumentException.class, () -> Downsampler.lttb(source, 0, 100, 2, out));
+    }
+
+    @Test
+    public void testMinMax()
+    {
+        TimeSeriesSource source = createSource(100_000);
+        int[] out = new int[2 * 500 + 2];
+
+        int count = Downsampler.minMax(source, 10, source.size() - 10, 500, out);
+        assertTrue(count <= out.length);
+        assertEquals(10, out[0]);
+        assertEquals(source.size() - 11, out[count - 1]);
+        assertAscending(out, count);
+
+        assertTrue(contains(out, count, 5_000));
+        assertTrue(contains(out, count, 70_000));
+    }
+
+    @Test
+    public void testIndexOf()
+    {
+        TimeSeriesSource source = TimeSeriesSource.of(new int[] { 10, 12, 12, 20 }, new double[4]);
+
+        assertEquals(0, source.indexOf(5));
+        assertEquals(1, source.indexOf(11));
+        assertEquals(1, source.indexOf(12));
+        assertEquals(3, source.indexOf(13));
+        assertEquals(4, source.indexOf(21));
+    }
+
+    private TimeSeriesSource createSource(int size)
+    {
+        int[] days = new int[size];
+        double[] values = new double[size];
+
+        for (int n = 0; n < size; n++) {
+            days[n] = n;
+            values[n] = Math.sin(n / 1000.0);
+        }
+        if (size > 70_000) {
+            values[5_000] = 50;
+            values[70_000] = -50;
+        }
+
+        return TimeSeriesSource.of(days, values);
+    }
+
+    private static void assertAscending(int[] array, int count)
+    {
+        for (int n = 1; n < count; n++)
+            assertTrue(array[n] > array[n - 1]);
+    }
+
+    private static boolean contains(int[] array, int count, int value)
+    {
+        for (int n = 0; n < count; n++)
+            if (array[n] == value) return true;
+        return false;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.geometry.Side;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.chart.Axis;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+import static hws.testhelper.TestHelper.packInList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class LocalDateAxisTest
+{
+    public LocalDateAxisTest()
+    {
+    }
+
+    @Test
+    public void testInvalidateRange_KeepsListUntouched()
+    {
+        List<LocalDate> dataList = packInList(LocalDate.of(2022,3,12),
+                                              LocalDate.of(2021,11,4),
+                                              LocalDate.of(2023,1,1),
+                                              LocalDate.of(2022,6,3));
+        List<LocalDate> expectedList = new ArrayList<>(dataList);
+
+        LocalDateAxis instance = new LocalDateAxis();
+        instance.invalidateRange(dataList);
+
+        Object[] range = (Object[]) instance.autoRange(500);
+        assertEquals(LocalDate.of(2021,11,4), range[0]);
+        assertEquals(LocalDate.of(2023,1,1), range[1]);
+        assertEquals(expectedList, dataList);
+    }
+
+    @Test
+    public void testInvalidateRange_LargeList()
+    {
+        List<LocalDate> dataList = new ArrayList<>();
+        LocalDate start = LocalDate.of(1900, 1, 1);
+        for (int n=0; n < 200_000; n++)
+            dataList.add(start.plusDays((n * 7919L) % 200_000));
+
+        LocalDateAxis instance = new LocalDateAxis();
+        instance.invalidateRange(dataList);
+
+        Object[] range = (Object[]) instance.autoRange(500);
+        assertEquals(start, range[0]);
+        assertEquals(start.plusDays(199_999), range[1]);
+    }
+
+    @Test
+    public void testInvalidateRange_Hint()
+    {
+        List<LocalDate> dataList = packInList(LocalDate.of(2022,3,12), LocalDate.of(2022,6,3));
+
+        LocalDateAxis instance = new LocalDateAxis();
+        instance.setDataRangeHint(LocalDate.of(2000,1,1), LocalDate.of(2030,12,31));
+        instance.invalidateRange(dataList);
+
+        Object[] range = (Object[]) instance.autoRange(500);
+        assertEquals(LocalDate.of(2000,1,1), range[0]);
+        assertEquals(LocalDate.of(2030,12,31), range[1]);
+
+        instance.setDataRangeHint(null, null);
+        instance.invalidateRange(dataList);
+
+        range = (Object[]) instance.autoRange(500);
+        assertEquals(LocalDate.of(2022,3,12), range[0]);
+        assertEquals(LocalDate.of(2022,6,3), range[1]);
+    }
+
+    @Test
+    public void testDisplayPosition()
+    {
+        LocalDateAxis instance = new LocalDateAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1));
+        instance.setSide(Side.BOTTOM);
+        instance.resize(365, 30);
+
+        assertEquals(0, instance.getDisplayPosition(LocalDate.of(2022, 1, 1)), 1e-9);
+        assertEquals(182, instance.getDisplayPosition(LocalDate.of(2022, 7, 2)), 1e-9);
+        assertEquals(365, instance.getDisplayPosition(LocalDate.of(2023, 1, 1)), 1e-9);
+
+        long[] epochDays = { LocalDate.of(2022, 1, 1).toEpochDay(), LocalDate.of(2022, 7, 2).toEpochDay() };
+        double[] positions = new double[2];
+        instance.toDisplayPositions(epochDays, positions);
+        assertArrayEquals(new double[] { 0, 182 }, positions, 1e-9);
+
+        // the mapping must follow size and range changes
+        instance.resize(730, 30);
+        assertEquals(364, instance.getDisplayPosition(LocalDate.of(2022, 7, 2)), 1e-9);
+
+        instance.setLowerBound(LocalDate.of(2022, 7, 2));
+        assertEquals(0, instance.getDisplayPosition(LocalDate.of(2022, 7, 2)), 1e-9);
+        assertEquals(730, instance.getDisplayPosition(LocalDate.of(2023, 1, 1)), 1e-9);
+    }
+
+    @Test
+    public void testDisplayPosition_Vertical()
+    {
+        LocalDateAxis instance = new LocalDateAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1));
+        instance.setSide(Side.LEFT);
+        instance.resize(30, 365);
+
+        assertEquals(365, instance.getDisplayPosition(LocalDate.of(2022, 1, 1)), 1e-9);
+        assertEquals(183, instance.getDisplayPosition(LocalDate.of(2022, 7, 2)), 1e-9);
+        assertEquals(0, instance.getDisplayPosition(LocalDate.of(2023, 1, 1)), 1e-9);
+    }
+
+    @Test
+    public void testCalculateTickValues_Months()
+    {
+        LocalDateAxis instance = new LocalDateAxis();
+        Object[] range = { LocalDate.of(2019, 3, 10), LocalDate.of(2020, 5, 10) };
+
+        // 700 pixel fit 10 ticks, the month ticks are centered on the 15th
+        List<LocalDate> expected = List.of(
+                LocalDate.of(2019, 3, 15), LocalDate.of(2019, 4, 15), LocalDate.of(2019, 5, 15),
+                LocalDate.of(2019, 6, 15), LocalDate.of(2019, 7, 15), LocalDate.of(2019, 8, 15),
+                LocalDate.of(2019, 9, 15), LocalDate.of(2019,10, 15), LocalDate.of(2019,11, 15),
+                LocalDate.of(2019,12, 15), LocalDate.of(2020, 1, 15), LocalDate.of(2020, 2, 15),
+                LocalDate.of(2020, 3, 15), LocalDate.of(2020, 4, 15));
+
+        assertEquals(expected, instance.calculateTickValues(700, range));
+    }
+
+    @Test
+    public void testCalculateTickValues_Weeks()
+    {
+        LocalDateAxis instance = new LocalDateAxis();
+        Object[] range = { LocalDate.of(2022, 3, 9), LocalDate.of(2022, 5, 18) };
+
+        // the week ticks are centered on thursday
+        List<LocalDate> expected = List.of(
+                LocalDate.of(2022, 3, 10), LocalDate.of(2022, 3, 17), LocalDate.of(2022, 3, 24),
+                LocalDate.of(2022, 3, 31), LocalDate.of(2022, 4,  7), LocalDate.of(2022, 4, 14),
+                LocalDate.of(2022, 4, 21), LocalDate.of(2022, 4, 28), LocalDate.of(2022, 5,  5),
+                LocalDate.of(2022, 5, 12));
+
+        assertEquals(expected, instance.calculateTickValues(700, range));
+    }
+
+    @Test
+    public void testFindTextNode()
+    {
+        LocalDateAxis instance = new LocalDateAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1));
+        instance.setSide(Side.BOTTOM);
+        instance.resize(700, 30);
+        instance.layout();
+
+        assertFalse(instance.getTickMarks().isEmpty());
+        for (Axis.TickMark<LocalDate> tick : instance.getTickMarks()) {
+            Text textNode = instance.findTextNode(tick.getValue());
+            assertNotNull(textNode);
+            assertEquals(tick.getLabel(), textNode.getText());
+            assertTrue(instance.getChildrenUnmodifiable().contains(textNode));
+        }
+
+        assertNull(instance.findTextNode(LocalDate.of(1970, 1, 1)));
+    }
+
+    @Test
+    public void testFindTextNode_Animated()
+    {
+        // the axis only animates on the FX thread and in a showing window
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            LocalDateAxis instance = new LocalDateAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 1, 1));
+            instance.setSide(Side.BOTTOM);
+            Stage stage = new Stage();
+            stage.setScene(new Scene(new Group(instance)));
+            stage.show();
+            instance.setAnimated(true);
+            instance.resize(700, 30);
+            instance.layout();
+
+            List<Node> oldNodes = new ArrayList<>(instance.getChildrenUnmodifiable());
+
+            // the previous labels fade out, most of them carry the same text as the new ones
+            instance.setBounds(LocalDate.of(2022, 2, 1), LocalDate.of(2023, 2, 1));
+            instance.layout();
+
+            assertFalse(instance.getTickMarks().isEmpty());
+            for (Axis.TickMark<LocalDate> tick : instance.getTickMarks()) {
+                Text textNode = instance.findTextNode(tick.getValue());
+                assertNotNull(textNode);
+                assertEquals(tick.getLabel(), textNode.getText());
+                assertTrue(instance.getChildrenUnmodifiable().contains(textNode));
+                assertFalse(oldNodes.contains(textNode));
+            }
+            stage.close();
+        });
+    }
+}
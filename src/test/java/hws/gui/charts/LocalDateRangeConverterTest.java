@@ -16,15 +16,19 @@
  */
 package hws.gui.charts;
 
+import hws.gui.charts.skins.PulseCoalescer;
 import hws.gui.charts.skins.RangeControlSet;
 import hws.testhelper.TestHelper;
 import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.control.ScrollBar;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
 
 /**
  *
@@ -257,4 +261,186 @@ public class LocalDateRangeConverterTest
         assertEquals(testDate, axis.getLowerBound());
         assertEquals(50, ctrlSet.getLowerLimit());
     }
+
+    @Test
+    public void testConverionEpochDays()
+    {
+        long[] data = { LocalDate.of(2022,3,12).toEpochDay(),
+                        LocalDate.of(2022,1,1).toEpochDay(),
+                        LocalDate.of(2022,12,31).toEpochDay(),
+                        LocalDate.of(2022,8,21).toEpochDay() };
+
+        LocalDateAxis axis = new LocalDateAxis(LocalDate.of(2022, 3, 1), LocalDate.of(2022,5,31));
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+
+        // Data range: 1.1.2022 - 31.12.2022 but axis boundaries 1.3.2022 - 31.5.2022
+        LocalDateRangeConverter instance = new LocalDateRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(data);
+
+        assertEquals(LocalDate.of(2022,1,1), axis.getLowerBound());
+        assertEquals(LocalDate.of(2022,12,31), axis.getUpperBound());
+
+        axis.setLowerBound(LocalDate.of(2022, 7, 2));
+        assertEquals(50, ctrlSet.getLowerLimit());
+
+        ctrlSet.setUpperLimit(100);
+        assertEquals(LocalDate.of(2022,12,31), axis.getUpperBound());
+    }
+
+    @Test
+    public void testDragStep_SingleAxisLayout()
+    {
+        long[] data = { LocalDate.of(2020,1,1).toEpochDay(), LocalDate.of(2023,12,31).toEpochDay() };
+
+        ScrollBar range = new ScrollBar();
+        RangeControlSet ctrlSet = new RangeControlSet(new ScrollBar(), range, new ScrollBar());
+        CountingAxis axis = new CountingAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2022,12,31));
+
+        // Data range: 1.1.2020 - 31.12.2023, visible 2021
+        LocalDateRangeConverter instance = new LocalDateRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(data);
+        axis.setBounds(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31));
+        assertEquals(LocalDate.of(2021, 1, 1), axis.getLowerBound());
+        assertEquals(LocalDate.of(2021, 12, 31), axis.getUpperBound());
+
+        // one step of dragging the range thumb moves both bounds with a single layout request
+        axis.layoutRequests = 0;
+        range.setValue(range.getValue() + 5);
+
+        assertEquals(1, axis.layoutRequests);
+        assertTrue(axis.getLowerBound().isAfter(LocalDate.of(2021, 1, 1)));
+        assertEquals(364, axis.getUpperBound().toEpochDay() - axis.getLowerBound().toEpochDay());
+
+        // the same for dragging a limit
+        axis.layoutRequests = 0;
+        ctrlSet.setUpperLimit(90);
+
+        assertEquals(1, axis.layoutRequests);
+    }
+
+    @Test
+    public void testSetBounds_ForwardJump()
+    {
+        long[] data = { LocalDate.of(2019,1,1).toEpochDay(), LocalDate.of(2023,12,31).toEpochDay() };
+
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+        CountingAxis axis = new CountingAxis(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 6, 30));
+
+        LocalDateRangeConverter instance = new LocalDateRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(data);
+        axis.setBounds(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 6, 30));
+
+        // the new lower bound lies behind the old upper bound
+        axis.layoutRequests = 0;
+        axis.setBounds(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 6, 30));
+
+        assertEquals(LocalDate.of(2021, 1, 1), axis.getLowerBound());
+        assertEquals(LocalDate.of(2021, 6, 30), axis.getUpperBound());
+        assertEquals(1, axis.layoutRequests);
+        assertEquals(percentOf(data, LocalDate.of(2021, 1, 1)), ctrlSet.getLowerLimit(), 0.000001);
+        assertEquals(percentOf(data, LocalDate.of(2021, 6, 30)), ctrlSet.getUpperLimit(), 0.000001);
+    }
+
+    @Test
+    public void testSetBounds_BackwardJump()
+    {
+        long[] data = { LocalDate.of(2019,1,1).toEpochDay(), LocalDate.of(2023,12,31).toEpochDay() };
+
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+        CountingAxis axis = new CountingAxis(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 6, 30));
+
+        LocalDateRangeConverter instance = new LocalDateRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(data);
+        axis.setBounds(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 6, 30));
+
+        // the new upper bound lies before the old lower bound
+        axis.layoutRequests = 0;
+        axis.setBounds(LocalDate.of(2019, 7, 1), LocalDate.of(2020, 3, 31));
+
+        assertEquals(LocalDate.of(2019, 7, 1), axis.getLowerBound());
+        assertEquals(LocalDate.of(2020, 3, 31), axis.getUpperBound());
+        assertEquals(1, axis.layoutRequests);
+        assertEquals(percentOf(data, LocalDate.of(2019, 7, 1)), ctrlSet.getLowerLimit(), 0.000001);
+        assertEquals(percentOf(data, LocalDate.of(2020, 3, 31)), ctrlSet.getUpperLimit(), 0.000001);
+
+        // a single bound set above the other one is still collapsed onto it
+        axis.setLowerBound(LocalDate.of(2021, 1, 1));
+        assertEquals(LocalDate.of(2020, 3, 31), axis.getLowerBound());
+        assertEquals(LocalDate.of(2020, 3, 31), axis.getUpperBound());
+    }
+
+    @Test
+    public void testDragSteps_Coalesced()
+    {
+        // run on the FX thread, so no pulse comes in between
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            long[] data = { LocalDate.of(2020,1,1).toEpochDay(), LocalDate.of(2023,12,31).toEpochDay() };
+
+            ScrollBar range = new ScrollBar();
+            RangeControlSet ctrlSet = new RangeControlSet(new ScrollBar(), range, new ScrollBar());
+            CountingAxis axis = new CountingAxis(LocalDate.of(2021, 1, 1), LocalDate.of(2021,12,31));
+            PulseCoalescer coalescer = new PulseCoalescer();
+
+            LocalDateRangeConverter instance = new LocalDateRangeConverter(axis);
+            instance.link(ctrlSet);
+            instance.updateData(data);
+            axis.setBounds(LocalDate.of(2021, 1, 1), LocalDate.of(2021,12,31));
+            instance.setCoalescer(coalescer);
+
+            // several drag steps within one frame don't touch the axis
+            axis.layoutRequests = 0;
+            double position = range.getValue();
+            range.setValue(position + 2);
+            range.setValue(position + 4);
+            range.setValue(position + 6);
+            ctrlSet.setUpperLimit(95);
+            ctrlSet.setUpperLimit(90);
+
+            assertEquals(0, axis.layoutRequests);
+            assertEquals(LocalDate.of(2021, 1, 1), axis.getLowerBound());
+            assertEquals(2, coalescer.getPendingCount());
+            LocalDate expectedLower = percentToDate(data, ctrlSet.lowerLimitAt(position + 6));
+
+            // the pulse applies the latest values only
+            coalescer.flush();
+            coalescer.cancel();
+
+            assertEquals(2, axis.layoutRequests);
+            assertEquals(expectedLower, axis.getLowerBound());
+            assertEquals(percentToDate(data, 90), axis.getUpperBound());
+            assertEquals(0, coalescer.getPendingCount());
+        });
+    }
+
+    private static LocalDate percentToDate(long[] data, double percent)
+    {
+        return LocalDate.ofEpochDay(Math.round(percent/100 * (data[1] - data[0])) + data[0]);
+    }
+
+    private static double percentOf(long[] data, LocalDate date)
+    {
+        return (double)(date.toEpochDay() - data[0]) / (data[1] - data[0]) * 100;
+    }
+
+    private static class CountingAxis
+    extends LocalDateAxis
+    {
+        int layoutRequests;
+
+        CountingAxis(LocalDate lBound, LocalDate uBound)
+        {
+            super(lBound, uBound);
+        }
+
+        @Override
+        public void requestAxisLayout()
+        {
+            layoutRequests++;
+            super.requestAxisLayout();
+        }
+    }
 }
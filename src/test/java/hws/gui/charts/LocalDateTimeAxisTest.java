@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import javafx.geometry.Side;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class LocalDateTimeAxisTest
+{
+    public LocalDateTimeAxisTest()
+    {
+    }
+
+    @Test
+    public void testDisplayPosition()
+    {
+        LocalDateTimeAxis instance = new LocalDateTimeAxis(LocalDateTime.of(2023, 5, 17, 0, 0),
+                                                           LocalDateTime.of(2023, 5, 18, 0, 0));
+        instance.setSide(Side.BOTTOM);
+        instance.resize(1440, 30);
+
+        assertEquals(0, instance.getDisplayPosition(LocalDateTime.of(2023, 5, 17, 0, 0)), 1e-9);
+        assertEquals(810, instance.getDisplayPosition(LocalDateTime.of(2023, 5, 17, 13, 30)), 1e-9);
+        assertEquals(1440, instance.getDisplayPosition(LocalDateTime.of(2023, 5, 18, 0, 0)), 1e-9);
+
+        assertEquals(LocalDateTime.of(2023, 5, 17, 13, 30), instance.getValueForDisplay(810));
+    }
+
+    @Test
+    public void testValueForDisplay_NoSize()
+    {
+        LocalDateTimeAxis instance = new LocalDateTimeAxis(LocalDateTime.of(2023, 5, 17, 0, 0),
+                                                           LocalDateTime.of(2023, 5, 18, 0, 0));
+        instance.setSide(Side.BOTTOM);
+
+        // not laid out yet, the width is 0
+        assertEquals(LocalDateTime.of(2023, 5, 17, 0, 0), instance.getValueForDisplay(100));
+    }
+
+    @Test
+    public void testCalculateTickValues_Hours()
+    {
+        LocalDateTimeAxis instance = new LocalDateTimeAxis();
+        Object[] range = { LocalDateTime.of(2023, 5, 17, 8, 20), LocalDateTime.of(2023, 5, 17, 20, 0) };
+
+        // 12 hours on 840 pixels -> hourly ticks
+        List<LocalDateTime> ticks = instance.calculateTickValues(840, range);
+        assertEquals(LocalDateTime.of(2023, 5, 17, 8, 0), ticks.get(0));
+        assertEquals(LocalDateTime.of(2023, 5, 17, 19, 0), ticks.get(ticks.size()-1));
+        assertEquals(12, ticks.size());
+    }
+
+    @Test
+    public void testAxisTick_Normalize()
+    {
+        LocalDateTime dateTime = LocalDateTime.of(2023, 5, 17, 13, 47, 12);
+
+        assertEquals(LocalDateTime.of(2023, 5, 17, 13, 45),
+                     LocalDateTimeAxis.AxisTick.QUARTER_HOURS.normalizeToBegin(dateTime));
+        assertEquals(LocalDateTime.of(2023, 5, 17, 12, 0),
+                     LocalDateTimeAxis.AxisTick.SIX_HOURS.normalizeToBegin(dateTime));
+        assertEquals(LocalDateTime.of(2023, 5, 17, 18, 0),
+                     LocalDateTimeAxis.AxisTick.SIX_HOURS.normalizeToEnd(dateTime));
+        assertEquals(LocalDateTime.of(2023, 5, 15, 0, 0),
+                     LocalDateTimeAxis.AxisTick.WEEKS.normalizeToBegin(dateTime));
+        assertEquals(LocalDateTime.of(2023, 5, 17, 12, 0),
+                     LocalDateTimeAxis.AxisTick.DAYS.normalizeToCenter(dateTime));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import hws.gui.charts.skins.RangeControlSet;
+import hws.testhelper.TestHelper;
+import java.time.LocalDateTime;
+import static hws.testhelper.TestHelper.packInList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class LocalDateTimeRangeConverterTest
+{
+    public LocalDateTimeRangeConverterTest()
+    {
+    }
+
+    @Test
+    public void testConverionBoundToPercent()
+    {
+        LocalDateTimeAxis axis = new LocalDateTimeAxis(LocalDateTime.of(2023, 5, 17, 0, 0),
+                                                       LocalDateTime.of(2023, 5, 18, 0, 0));
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+
+        // Range: 17.5.2023 00:00 - 18.5.2023 00:00
+        LocalDateTimeRangeConverter instance = new LocalDateTimeRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(packInList(LocalDateTime.of(2023, 5, 17, 0, 0),
+                                       LocalDateTime.of(2023, 5, 17, 9, 15),
+                                       LocalDateTime.of(2023, 5, 18, 0, 0)));
+
+        axis.setLowerBound(LocalDateTime.of(2023, 5, 17, 12, 0));
+        assertEquals(50, ctrlSet.getLowerLimit());
+
+        axis.setUpperBound(LocalDateTime.of(2023, 5, 17, 18, 0));
+        assertEquals(75, ctrlSet.getUpperLimit());
+    }
+
+    @Test
+    public void testConverionPercentToBound()
+    {
+        LocalDateTimeAxis axis = new LocalDateTimeAxis(LocalDateTime.of(2023, 5, 17, 0, 0),
+                                                       LocalDateTime.of(2023, 5, 18, 0, 0));
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+
+        LocalDateTimeRangeConverter instance = new LocalDateTimeRangeConverter(axis);
+        instance.link(ctrlSet);
+
+        ctrlSet.setUpperLimit(50);
+        assertEquals(LocalDateTime.of(2023, 5, 17, 12, 0), axis.getUpperBound());
+
+        ctrlSet.setLowerLimit(25);
+        assertEquals(LocalDateTime.of(2023, 5, 17, 6, 0), axis.getLowerBound());
+    }
+
+    @Test
+    public void testConverionEpochSeconds()
+    {
+        LocalDateTimeAxis axis = new LocalDateTimeAxis(LocalDateTime.of(2023, 5, 17, 6, 0),
+                                                       LocalDateTime.of(2023, 5, 17, 18, 0));
+        RangeControlSet ctrlSet = TestHelper.createRangeControlSet();
+
+        LocalDateTimeRangeConverter instance = new LocalDateTimeRangeConverter(axis);
+        instance.link(ctrlSet);
+
+        // data from 0:00 to 24:00 widens the range
+        long[] epochSeconds = {
+            LocalDateTimeAxis.toEpochSecond(LocalDateTime.of(2023, 5, 17, 0, 0)),
+            LocalDateTimeAxis.toEpochSecond(LocalDateTime.of(2023, 5, 18, 0, 0))
+        };
+        instance.updateData(epochSeconds, 0, epochSeconds.length);
+
+        assertEquals(LocalDateTime.of(2023, 5, 17, 0, 0), axis.getLowerBound());
+        assertEquals(LocalDateTime.of(2023, 5, 18, 0, 0), axis.getUpperBound());
+    }
+}
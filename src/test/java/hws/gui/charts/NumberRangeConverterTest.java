@@ -192,6 +192,28 @@ public class NumberRangeConverterTest
         assertEquals(42,0, ctrlSet.getLowerLimit());
     }
 
+    @Test
+    public void testConverionPrimitiveData()
+    {
+        double[] data = { 13, 3, 19, 20, 24, 98, 87, 72, 36, 46 } ;
+
+        NumberAxis axis = new NumberAxis(10, 50, 10);
+        RangeControlSet ctrlSet = createRangeControlSet();
+
+        // data range set: 3 - 98 but axis boundaries 10 - 50
+        NumberRangeConverter instance = new NumberRangeConverter(axis);
+        instance.link(ctrlSet);
+        instance.updateData(data);
+
+        ctrlSet.setUpperLimit(50);
+        assertEquals(50.5, axis.getUpperBound());
+
+        // only the first three values: data range 3 - 19 but axis boundaries 10 - 50.5
+        instance.updateData(data, 0, 3);
+        axis.setLowerBound(26.75);
+        assertEquals(50, ctrlSet.getLowerLimit());
+    }
+
     private RangeControlSet createRangeControlSet()
     {
         ScrollBar bar1 = new ScrollBar();
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class PathElementPoolTest
+{
+    public PathElementPoolTest()
+    {
+    }
+
+    @Test
+    public void testReuse()
+    {
+        Path path = new Path();
+        PathElementPool instance = new PathElementPool(path);
+
+        instance.begin();
+        instance.addLine(1, 2, 3, 4);
+        instance.addLine(5, 6, 7, 8);
+        instance.end();
+
+        assertEquals(4, path.getElements().size());
+        PathElement first = path.getElements().get(0);
+        PathElement last = path.getElements().get(3);
+
+        // same number of segments, the elements are updated in place
+        instance.begin();
+        instance.addLine(10, 20, 30, 40);
+        instance.addLine(50, 60, 70, 80);
+        instance.end();
+
+        assertEquals(4, path.getElements().size());
+        assertSame(first, path.getElements().get(0));
+        assertSame(last, path.getElements().get(3));
+        assertEquals(10, ((MoveTo) first).getX());
+        assertEquals(20, ((MoveTo) first).getY());
+        assertEquals(70, ((LineTo) last).getX());
+        assertEquals(80, ((LineTo) last).getY());
+
+        // grow
+        instance.begin();
+        instance.addLine(1, 1, 1, 1);
+        instance.addLine(2, 2, 2, 2);
+        instance.addLine(3, 3, 3, 3);
+        instance.end();
+
+        assertEquals(6, path.getElements().size());
+        assertSame(first, path.getElements().get(0));
+        assertEquals(3, ((LineTo) path.getElements().get(5)).getX());
+
+        // shrink
+        instance.begin();
+        instance.addLine(9, 9, 9, 9);
+        instance.end();
+
+        assertEquals(2, path.getElements().size());
+        assertEquals(1, instance.size());
+        assertSame(first, path.getElements().get(0));
+
+        instance.begin();
+        instance.end();
+        assertTrue(path.getElements().isEmpty());
+    }
+}
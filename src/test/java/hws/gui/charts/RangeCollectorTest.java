@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import static hws.testhelper.TestHelper.packInList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author grimm
+ */
+public class RangeCollectorTest
+{
+    public RangeCollectorTest()
+    {
+    }
+
+    @Test
+    public void testDistinct_KeepsInsertionOrder()
+    {
+        RangeCollector<String> instance = RangeCollector.distinct();
+        instance.addAll(packInList("Oker", "Innerste", "Oker", "Ecker", "Innerste", "Grane"));
+        instance.add(null);
+
+        assertEquals(packInList("Oker", "Innerste", "Ecker", "Grane"), instance.values());
+    }
+
+    @Test
+    public void testExtremes_Dates()
+    {
+        RangeCollector<LocalDate> instance = RangeCollector.extremes(Comparator.naturalOrder());
+        assertTrue(instance.isEmpty());
+        assertTrue(instance.values().isEmpty());
+
+        instance.addAll(packInList(LocalDate.of(2023, 5, 1), LocalDate.of(1999, 1, 1),
+                                   LocalDate.of(2031, 12, 31), LocalDate.of(2010, 6, 15)));
+
+        List<LocalDate> values = instance.values();
+        assertEquals(2, values.size());
+        assertEquals(LocalDate.of(1999, 1, 1), values.get(0));
+        assertEquals(LocalDate.of(2031, 12, 31), values.get(1));
+    }
+
+    @Test
+    public void testExtremes_SingleValue()
+    {
+        RangeCollector<Number> instance =
+                RangeCollector.extremes(Comparator.comparingDouble(Number::doubleValue));
+        instance.add(13);
+        instance.add(13);
+
+        assertEquals(packInList(13), instance.values());
+
+        instance.clear();
+        assertTrue(instance.isEmpty());
+    }
+
+    @Test
+    public void testMerge()
+    {
+        RangeCollector<String> first = RangeCollector.distinct();
+        RangeCollector<String> second = RangeCollector.distinct();
+        first.addAll(packInList("Oker", "Ecker"));
+        second.addAll(packInList("Ecker", "Grane"));
+
+        first.merge(second);
+        assertEquals(packInList("Oker", "Ecker", "Grane"), first.values());
+
+        // the occurrences are merged as well
+        first.remove("Ecker");
+        assertEquals(packInList("Oker", "Ecker", "Grane"), first.values());
+
+        RangeCollector<Number> extremes =
+                RangeCollector.extremes(Comparator.comparingDouble(Number::doubleValue));
+        RangeCollector<Number> other =
+                RangeCollector.extremes(Comparator.comparingDouble(Number::doubleValue));
+        extremes.addAll(packInList(3, 7));
+        other.addAll(packInList(-1, 5));
+
+        extremes.merge(other);
+        assertEquals(packInList(-1, 7), extremes.values());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author grimm
+ */
+public class RangeTraceTest
+{
+    public RangeTraceTest()
+    {
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        RangeTrace.setEnabled(false);
+        RangeTrace.clear();
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        RangeTrace.clear();
+        RangeTrace.enter(RangeTrace.Event.UPPER_RANGE_LIMIT, this, 10, 20);
+        RangeTrace.exit();
+
+        assertFalse(RangeTrace.isEnabled());
+        assertEquals(0, RangeTrace.size());
+    }
+
+    @Test
+    public void testNesting()
+    {
+        RangeTrace.setEnabled(true);
+        RangeTrace.clear();
+
+        RangeTrace.enter(RangeTrace.Event.UPPER_RANGE_LIMIT, this, 10, 20);
+        RangeTrace.enter(RangeTrace.Event.UPPER_AXIS_BOUND, this, 1, 2);
+        RangeTrace.exit();
+        RangeTrace.exit();
+        RangeTrace.event(RangeTrace.Event.REMOVE_LISTENERS, this, 3);
+        assertEquals(3, RangeTrace.size());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        RangeTrace.dump(new PrintStream(buffer, true));
+        String[] lines = buffer.toString().split("\\R");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("0 UPPER_RANGE_LIMIT RangeTraceTest (10.0 / 20.0)"));
+        assertTrue(lines[1].contains(" 1 UPPER_AXIS_BOUND RangeTraceTest (1.0 / 2.0)"));
+        assertTrue(lines[2].contains("0 REMOVE_LISTENERS RangeTraceTest (NaN / 3.0)"));
+    }
+
+    @Test
+    public void testRingBuffer()
+    {
+        RangeTrace.setEnabled(true);
+        RangeTrace.clear();
+
+        for (int n=0; n < RangeTrace.CAPACITY + 10; n++)
+            RangeTrace.event(RangeTrace.Event.RANGE_POSITION, this, n);
+
+        assertEquals(RangeTrace.CAPACITY, RangeTrace.size());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        RangeTrace.dump(new PrintStream(buffer, true));
+        String[] lines = buffer.toString().split("\\R");
+        assertTrue(lines[0].endsWith("(NaN / 10.0)"));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts;
+
+import hws.gui.charts.LocalDateAxis.AxisTick;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class TimeSeriesPyramidTest
+{
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+    private static final int SIZE = 10 * 365;
+
+    public TimeSeriesPyramidTest()
+    {
+    }
+
+    @Test
+    public void testLevels()
+    {
+        TimeSeriesPyramid instance = new TimeSeriesPyramid(createSource());
+
+        // 10 years: 2 samples for each month, year, ... at most
+        assertEquals(SIZE, instance.getLevel(AxisTick.DAYS).size());
+        assertTrue(instance.getLevel(AxisTick.MONTHS).size() <= 2 * 120);
+        assertTrue(instance.getLevel(AxisTick.YEARS).size() <= 2 * 10);
+        assertTrue(instance.getLevel(AxisTick.CENTURY).size() <= 2);
+
+        for (AxisTick tick : AxisTick.values()) {
+            TimeSeriesPyramid.Level level = instance.getLevel(tick);
+
+            // the peaks survive on all levels, the samples stay in order
+            assertTrue(containsValue(level, 100), tick.name());
+            assertTrue(containsValue(level, -100), tick.name());
+            for (int n = 1; n < level.size(); n++)
+                assertTrue(level.getEpochDay(n) > level.getEpochDay(n - 1));
+        }
+    }
+
+    @Test
+    public void testLevel_MinMaxPerMonth()
+    {
+        TimeSeriesPyramid instance = new TimeSeriesPyramid(createSource());
+        TimeSeriesPyramid.Level level = instance.getLevel(AxisTick.MONTHS);
+
+        // January 2000: minimum on the 1st, maximum on the 31st
+        assertEquals(START.toEpochDay(), level.getEpochDay(0));
+        assertEquals(START.plusDays(30).toEpochDay(), level.getEpochDay(1));
+        assertEquals(30, level.baseIndex(1));
+    }
+
+    @Test
+    public void testSelectLevel()
+    {
+        TimeSeriesPyramid instance = new TimeSeriesPyramid(createSource());
+
+        // one interval per pixel at least
+        assertSame(instance.getLevel(AxisTick.DAYS), instance.selectLevel(SIZE, 1000));
+        assertSame(instance.getLevel(AxisTick.WEEKS), instance.selectLevel(SIZE, 500));
+        assertSame(instance.getLevel(AxisTick.MONTHS), instance.selectLevel(SIZE, 100));
+        assertSame(instance.getLevel(AxisTick.YEARS), instance.selectLevel(SIZE, 10));
+    }
+
+    private TimeSeriesSource createSource()
+    {
+        int[] days = new int[SIZE];
+        double[] values = new double[SIZE];
+
+        for (int n = 0; n < SIZE; n++) {
+            LocalDate date = START.plusDays(n);
+            days[n] = (int) date.toEpochDay();
+            values[n] = date.getDayOfMonth();
+        }
+        values[1000] = 100;
+        values[3000] = -100;
+
+        return TimeSeriesSource.of(days, values);
+    }
+
+    private static boolean containsValue(TimeSeriesSource source, double value)
+    {
+        for (int n = 0; n < source.size(); n++)
+            if (source.getValue(n) == value) return true;
+        return false;
+    }
+}
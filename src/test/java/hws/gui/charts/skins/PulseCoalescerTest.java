@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class PulseCoalescerTest
+{
+    public PulseCoalescerTest()
+    {
+    }
+
+    @Test
+    public void testLatestValueWins()
+    {
+        List<String> log = new ArrayList<>();
+
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            PulseCoalescer instance = new PulseCoalescer();
+            instance.submit("a", () -> log.add("a1"));
+            instance.submit("b", () -> log.add("b1"));
+            instance.submit("a", () -> log.add("a2"));
+            assertEquals(2, instance.getPendingCount());
+            assertTrue(log.isEmpty());
+
+            instance.flush();
+            instance.cancel();
+        });
+
+        // order of the first submit, value of the last one
+        assertEquals(List.of("a2", "b1"), log);
+    }
+
+    @Test
+    public void testAppliedOnNextPulse() throws Exception
+    {
+        List<String> log = new ArrayList<>();
+        PulseCoalescer instance = WaitForAsyncUtils.asyncFx(() -> new PulseCoalescer()).get();
+
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            instance.submit("a", () -> log.add("a1"));
+            instance.submit("a", () -> log.add("a2"));
+        });
+
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> WaitForAsyncUtils.asyncFx(() -> instance.getPendingCount()).get() == 0);
+        WaitForAsyncUtils.waitForFxEvents();
+        assertEquals(List.of("a2"), log);
+    }
+
+    @Test
+    public void testCancel()
+    {
+        List<String> log = new ArrayList<>();
+
+        WaitForAsyncUtils.waitForAsyncFx(TimeUnit.SECONDS.toMillis(5), () -> {
+            PulseCoalescer instance = new PulseCoalescer();
+            instance.submit("a", () -> log.add("a1"));
+            instance.cancel();
+
+            assertEquals(0, instance.getPendingCount());
+            instance.flush();
+        });
+
+        assertTrue(log.isEmpty());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2023 grimm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package hws.gui.charts.skins;
+
+import hws.gui.charts.RangeCollector;
+import hws.gui.charts.RangeConverter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.util.WaitForAsyncUtils;
+
+/**
+ *
+ * @author grimm
+ */
+@ExtendWith(ApplicationExtension.class)
+public class RangeTrackerTest
+{
+    public RangeTrackerTest()
+    {
+    }
+
+    @Test
+    public void testAppendInsideRange_NoUpdate()
+    {
+        RecordingConverter convX = new RecordingConverter();
+        RecordingConverter convY = new RecordingConverter();
+        ObservableList<XYChart.Series<Number,Number>> list = createData();
+
+        RangeTracker<Number,Number> instance = new RangeTracker<>(convX, convY);
+        instance.attach(list);
+        assertEquals(1, convX.updates.size());
+        assertEquals(List.of(1, 3), convX.lastUpdate());
+        assertEquals(List.of(10, 30), convY.lastUpdate());
+
+        list.get(0).getData().add(new XYChart.Data<>(2, 20));
+        assertEquals(1, convX.updates.size());
+        assertEquals(1, convY.updates.size());
+    }
+
+    @Test
+    public void testAppendOutsideRange()
+    {
+        RecordingConverter convX = new RecordingConverter();
+        RecordingConverter convY = new RecordingConverter();
+        ObservableList<XYChart.Series<Number,Number>> list = createData();
+
+        RangeTracker<Number,Number> instance = new RangeTracker<>(convX, convY);
+        instance.attach(list);
+
+        list.get(0).getData().add(new XYChart.Data<>(4, 20));
+        assertEquals(2, convX.updates.size());
+        assertEquals(List.of(1, 4), convX.lastUpdate());
+        assertEquals(1, convY.updates.size());
+    }
+
+    @Test
+    public void testRemoveSeriesWithExtreme()
+    {
+        RecordingConverter convX = new RecordingConverter();
+        RecordingConverter convY = new RecordingConverter();
+        ObservableList<XYChart.Series<Number,Number>> list = createData();
+
+        XYChart.Series<Number,Number> series = new XYChart.Series<>();
+        series.getData().add(new XYChart.Data<>(8, 80));
+        list.add(series);
+
+        RangeTracker<Number,Number> instance = new RangeTracker<>(convX, convY);
+        instance.attach(list);
+        assertEquals(List.of(1, 8), convX.lastUpdate());
+
+        list.remove(series);
+        assertEquals(List.of(1, 3), convX.lastUpdate());
+        assertEquals(List.of(10, 30), convY.lastUpdate());
+
+        // detached lists are not tracked any longer
+        instance.detach();
+        list.get(0).getData().add(new XYChart.Data<>(42, 42));
+        assertEquals(List.of(1, 3), convX.lastUpdate());
+    }
+
+    @Test
+    public void testAsynchronousRebuild() throws Exception
+    {
+        RecordingConverter convX = new RecordingConverter();
+        RecordingConverter convY = new RecordingConverter();
+        ObservableList<XYChart.Series<Number,Number>> list = createData();
+
+        XYChart.Series<Number,Number> series = new XYChart.Series<>();
+        series.getData().add(new XYChart.Data<>(-5, 5));
+        list.add(series);
+
+        RangeTracker<Number,Number> instance = new RangeTracker<>(convX, convY);
+        instance.setAsynchronous(true);
+        WaitForAsyncUtils.waitForAsyncFx(5000, () -> instance.attach(list));
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> !convY.updates.isEmpty());
+
+        assertEquals(List.of(-5, 3), convX.lastUpdate());
+        assertEquals(List.of(5, 30), convY.lastUpdate());
+    }
+
+    @Test
+    public void testAsynchronousRebuild_ChangesWhilePending() throws Exception
+    {
+        BlockingConverter convX = new BlockingConverter();
+        RecordingConverter convY = new RecordingConverter();
+        ObservableList<XYChart.Series<Number,Number>> list = createData();
+
+        RangeTracker<Number,Number> instance = new RangeTracker<>(convX, convY);
+        instance.setAsynchronous(true);
+        convX.blocked = new CountDownLatch(1);
+
+        // the changes made while the rebuild is pending don't take new snapshots
+        WaitForAsyncUtils.waitForAsyncFx(5000, () -> {
+                instance.attach(list);
+                for (int n = 0; n < 100; n++)
+                    list.get(0).getData().add(new XYChart.Data<>(n + 10, 10));
+                assertTrue(instance.isRebuildPending());
+            });
+        convX.blocked.countDown();
+
+        // the rebuild is restarted once and includes all changes
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> !convX.updates.isEmpty()
+                && convX.lastUpdate().equals(List.of(1, 109)));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertFalse(instance.isRebuildPending());
+        assertEquals(2, convX.workerCollectors.get());
+    }
+
+    private ObservableList<XYChart.Series<Number,Number>> createData()
+    {
+        XYChart.Series<Number,Number> series = new XYChart.Series<>();
+        series.getData().add(new XYChart.Data<>(1, 10));
+        series.getData().add(new XYChart.Data<>(3, 30));
+
+        ObservableList<XYChart.Series<Number,Number>> list = FXCollections.observableArrayList();
+        list.add(series);
+        return list;
+    }
+
+    private static class RecordingConverter
+    extends RangeConverter<Number>
+    {
+        final List<List<Number>> updates = new ArrayList<>();
+
+        RecordingConverter()
+        {
+            super(null);
+        }
+
+        @Override
+        public void updateData(List<Number> list)
+        {
+            updates.add(list);
+        }
+
+        @Override
+        public RangeCollector<Number> createCollector()
+        {
+            return RangeCollector.extremes(Comparator.comparingDouble(Number::doubleValue));
+        }
+
+        @Override
+        public void link(RangeControlSet rangeCTRL)
+        {
+        }
+
+        List<Number> lastUpdate()
+        {
+            return updates.get(updates.size() - 1);
+        }
+    }
+
+    // holds the workers of the asynchronous rebuild until the latch is released
+    private static class BlockingConverter
+    extends RecordingConverter
+    {
+        private volatile CountDownLatch blocked;
+        private final AtomicInteger workerCollectors = new AtomicInteger();
+
+        @Override
+        public RangeCollector<Number> createCollector()
+        {
+            if (blocked != null && !Platform.isFxApplicationThread()) {
+                workerCollectors.incrementAndGet();
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.createCollector();
+        }
+    }
+}